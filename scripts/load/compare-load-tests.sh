@@ -0,0 +1,19 @@
+#!/usr/bin/env bash
+# Compares two runs of run-load-test.sh: the highest rate each sustained, then p99 and throughput per step and
+# operation side by side.
+#
+# usage: compare-load-tests.sh <baseline-label> <candidate-label>
+set -euo pipefail
+
+cd "$(dirname "$(realpath "$0")")/../../target/load-test"
+BASELINE=$1
+CANDIDATE=$2
+
+grep -h '^sustained-rate=' "$BASELINE/result.properties" "$CANDIDATE/result.properties" \
+    | paste -d' ' <(printf '%s\n' "$BASELINE" "$CANDIDATE") -
+printf '\n%-6s %-16s %14s %14s %14s %14s\n' rate operation "p99 $BASELINE" "p99 $CANDIDATE" "req/s $BASELINE" "req/s $CANDIDATE"
+join -t, -j1 \
+    <(awk -F, 'NR > 1 {print $1 "/" $2 "," $8 "," $5}' "$BASELINE/summary.csv" | sort) \
+    <(awk -F, 'NR > 1 {print $1 "/" $2 "," $8 "," $5}' "$CANDIDATE/summary.csv" | sort) \
+    | sort -t/ -k1,1n -k2 \
+    | awk -F, '{split($1, key, "/"); printf "%-6s %-16s %12.2fms %12.2fms %14.1f %14.1f\n", key[1], key[2], $2, $4, $3, $5}'
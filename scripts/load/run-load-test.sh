@@ -0,0 +1,32 @@
+#!/usr/bin/env bash
+# Runs MixedWorkloadLoadHarness for the current checkout and stores its results under target/load-test/<label>.
+# With LOAD_DATABASE=postgres the service runs against a throwaway postgres container (or against
+# LOAD_DATASOURCE_URL when set, whose schema is dropped first); otherwise it uses in-memory H2.
+# Any further arguments are passed to Maven, e.g. -Dload.mix=authenticate:50,protected:50 -Dload.step-seconds=60.
+#
+# usage: run-load-test.sh [label] [maven-args...]      (default label: short git commit id)
+set -euo pipefail
+
+cd "$(dirname "$(realpath "$0")")/../.."
+LABEL=${1:-$(git rev-parse --short HEAD)}
+shift || true
+ARGS=(-B test -Pload "-Dload.label=$LABEL")
+
+if [[ ${LOAD_DATABASE:-h2} == postgres ]]; then
+    if [[ -z ${LOAD_DATASOURCE_URL:-} ]]; then
+        CONTAINER=$(docker run -d --rm -e POSTGRES_PASSWORD=load -e POSTGRES_DB=zuber_security_load \
+            -p 127.0.0.1::5432 "${LOAD_POSTGRES_IMAGE:-postgres:16}")
+        trap 'docker stop "$CONTAINER" > /dev/null' EXIT
+        PORT=$(docker port "$CONTAINER" 5432/tcp | head -1 | cut -d: -f2)
+        until docker exec "$CONTAINER" pg_isready -q -U postgres; do sleep 1; done
+        LOAD_DATASOURCE_URL="jdbc:postgresql://127.0.0.1:$PORT/zuber_security_load"
+        LOAD_DATASOURCE_USERNAME=postgres
+        LOAD_DATASOURCE_PASSWORD=load
+    fi
+    ARGS+=("-Dload.datasource.url=$LOAD_DATASOURCE_URL"
+           "-Dload.datasource.username=${LOAD_DATASOURCE_USERNAME:-postgres}"
+           "-Dload.datasource.password=${LOAD_DATASOURCE_PASSWORD:-}")
+fi
+
+mvn "${ARGS[@]}" "$@"
+cat "target/load-test/$LABEL/result.properties"
@@ -0,0 +1,47 @@
+#!/usr/bin/env bash
+# Compares the JVM jar with the native executable: time from launch to the first served HTTP request and
+# resident set size once serving. Any HTTP status counts as served.
+#
+# usage: measure-footprint.sh <boot-jar> <native-executable> [runs]
+set -euo pipefail
+
+JAR=$(realpath "$1")
+NATIVE=$(realpath "$2")
+RUNS=${3:-3}
+PORT=${FOOTPRINT_PORT:-18085}
+REPORT=$(dirname "$JAR")/native-footprint.txt
+URL="http://localhost:$PORT/actuator/health"
+
+measure() {
+    local start end pid rss
+    start=$(date +%s%N)
+    "$@" --spring.profiles.active=startup --server.port="$PORT" > /dev/null 2>&1 &
+    pid=$!
+    until [[ $(curl -s -o /dev/null -w '%{http_code}' "$URL") != "000" ]]; do
+        if ! kill -0 "$pid" 2> /dev/null; then
+            echo "failed failed"
+            return
+        fi
+        sleep 0.01
+    done
+    end=$(date +%s%N)
+    rss=$(ps -o rss= -p "$pid" | tr -d ' ')
+    kill "$pid"
+    wait "$pid" 2> /dev/null || true
+    echo "$(((end - start) / 1000000)) $((rss / 1024))"
+}
+
+report() {
+    local label=$1
+    shift
+    for _ in $(seq "$RUNS"); do
+        read -r millis rss <<< "$(measure "$@")"
+        printf '%-8s %18s %10s\n' "$label" "$millis" "$rss"
+    done
+}
+
+{
+    printf '%-8s %18s %10s\n' "build" "first request (ms)" "RSS (MB)"
+    report jvm java -jar "$JAR"
+    report native "$NATIVE"
+} | tee "$REPORT"
@@ -0,0 +1,97 @@
+#!/usr/bin/env bash
+# Compares email lookup and insert latency of the original heap _user layout with the email hash-partitioned
+# layout from partition-user-table.xml. For every row count both layouts are rebuilt as scratch tables,
+# filled by generate-users.sh and driven by pgbench. Needs psql and pgbench; connection settings come from
+# the usual PG* environment variables.
+#
+# usage: benchmark-users.sh [rows...]          (default: 10000000 100000000)
+set -euo pipefail
+
+SCRIPT_DIR=$(dirname "$(realpath "$0")")
+ROW_COUNTS=("$@")
+if [[ ${#ROW_COUNTS[@]} -eq 0 ]]; then
+    ROW_COUNTS=(10000000 100000000)
+fi
+PARTITIONS=${BENCH_PARTITIONS:-16}
+CLIENTS=${BENCH_CLIENTS:-8}
+DURATION=${BENCH_DURATION:-60}
+WORK_DIR=$(mktemp -d)
+REPORT=${BENCH_REPORT:-partitioning-report.txt}
+trap 'rm -rf "$WORK_DIR"' EXIT
+
+create_tables() {
+    psql -q -v ON_ERROR_STOP=1 <<SQL
+DROP TABLE IF EXISTS bench_user_heap, bench_user_hash;
+CREATE TABLE bench_user_heap
+(
+    id            BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name          VARCHAR(255) NOT NULL,
+    surname       VARCHAR(255) NOT NULL,
+    email         VARCHAR(255) NOT NULL UNIQUE,
+    password      VARCHAR(255) NOT NULL UNIQUE,
+    user_role     VARCHAR(255),
+    last_login_at TIMESTAMP,
+    login_count   BIGINT       NOT NULL DEFAULT 0,
+    locked_until  TIMESTAMP
+);
+CREATE SEQUENCE IF NOT EXISTS bench_user_hash_id_seq;
+CREATE TABLE bench_user_hash
+(
+    id            BIGINT       NOT NULL DEFAULT nextval('bench_user_hash_id_seq'),
+    name          VARCHAR(255) NOT NULL,
+    surname       VARCHAR(255) NOT NULL,
+    email         VARCHAR(255) NOT NULL,
+    password      VARCHAR(255) NOT NULL,
+    user_role     VARCHAR(255),
+    last_login_at TIMESTAMP,
+    login_count   BIGINT       NOT NULL DEFAULT 0,
+    locked_until  TIMESTAMP,
+    PRIMARY KEY (id, email),
+    UNIQUE (email)
+) PARTITION BY HASH (email);
+DO \$\$
+BEGIN
+    FOR i IN 0..$PARTITIONS - 1 LOOP
+        EXECUTE format('CREATE TABLE bench_user_hash_p%s PARTITION OF bench_user_hash '
+                           'FOR VALUES WITH (MODULUS %s, REMAINDER %s)', i, $PARTITIONS, i);
+    END LOOP;
+END \$\$;
+SQL
+}
+
+run() {
+    local name=$1 table=$2 rows=$3 script=$4
+    sed -e "s/TABLE/$table/g" -e "s/ROWS/$rows/g" > "$WORK_DIR/$name.sql" <<< "$script"
+    (cd "$WORK_DIR" && rm -f pgbench_log.* &&
+        pgbench -n -M prepared -c "$CLIENTS" -j "$CLIENTS" -T "$DURATION" -l -f "$name.sql" > "$name.out")
+    local tps
+    tps=$(awk '/^tps/ {printf "%.0f", $3}' "$WORK_DIR/$name.out")
+    cat "$WORK_DIR"/pgbench_log.* | awk '{print $3}' | sort -n | awk -v name="$name" -v tps="$tps" '
+        { latency[NR] = $1 }
+        END {
+            printf "%-28s tps=%8s p50=%7.0fus p99=%7.0fus p99.9=%7.0fus\n", name, tps,
+                latency[int(NR * 0.50)], latency[int(NR * 0.99)], latency[int(NR * 0.999)]
+        }'
+}
+
+LOOKUP="\set n random(1, ROWS)
+SELECT id, email, password, user_role, locked_until FROM TABLE WHERE email = 'user' || :n || '@bench.zuber.invalid';"
+INSERT="INSERT INTO TABLE (name, surname, email, password, user_role)
+VALUES ('bench', 'bench', gen_random_uuid() || '@bench.zuber.invalid', gen_random_uuid()::text, 'USER');"
+
+{
+    echo "clients=$CLIENTS duration=${DURATION}s partitions=$PARTITIONS"
+    for rows in "${ROW_COUNTS[@]}"; do
+        create_tables
+        "$SCRIPT_DIR/generate-users.sh" bench_user_heap "$rows" > /dev/null
+        "$SCRIPT_DIR/generate-users.sh" bench_user_hash "$rows" > /dev/null
+        echo "rows=$rows"
+        for table in bench_user_heap bench_user_hash; do
+            psql -At -c "SELECT '$table size=' || pg_size_pretty(
+                             (SELECT SUM(pg_total_relation_size(relid)) FROM pg_partition_tree('$table')))"
+            run "${table}_lookup" "$table" "$rows" "$LOOKUP"
+            run "${table}_insert" "$table" "$rows" "$INSERT"
+        done
+    done
+    psql -q -c "DROP TABLE IF EXISTS bench_user_heap, bench_user_hash; DROP SEQUENCE IF EXISTS bench_user_hash_id_seq"
+} | tee "$REPORT"
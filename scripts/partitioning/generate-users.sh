@@ -0,0 +1,22 @@
+#!/usr/bin/env bash
+# Fills a table shaped like _user with synthetic accounts user<n>@bench.zuber.invalid, generated server-side
+# in batches so 100M rows do not need a single huge transaction. Connection settings come from the usual
+# PG* environment variables.
+#
+# usage: generate-users.sh <table> <rows> [batch-size]
+set -euo pipefail
+
+TABLE=$1
+ROWS=$2
+BATCH=${3:-1000000}
+
+for ((from = 1; from <= ROWS; from += BATCH)); do
+    to=$((from + BATCH - 1 < ROWS ? from + BATCH - 1 : ROWS))
+    psql -q -v ON_ERROR_STOP=1 -c "
+        INSERT INTO $TABLE (name, surname, email, password, user_role)
+        SELECT 'bench', 'bench', 'user' || n || '@bench.zuber.invalid',
+               '\$2a\$10\$' || md5(n::text) || substr(md5(n::text || 'salt'), 1, 21), 'USER'
+        FROM generate_series($from, $to) AS n"
+    echo "$TABLE: $to / $ROWS"
+done
+psql -q -v ON_ERROR_STOP=1 -c "VACUUM ANALYZE $TABLE"
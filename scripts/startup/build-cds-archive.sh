@@ -0,0 +1,37 @@
+#!/usr/bin/env bash
+# Unpacks the Boot jar into a plain classpath layout (CDS cannot archive classes loaded from nested jars)
+# and records an AppCDS archive from a training run that exits once the application is ready.
+#
+# usage: build-cds-archive.sh <boot-jar> [output-dir]
+set -euo pipefail
+
+JAR=$(realpath "$1")
+OUT=${2:-$(dirname "$JAR")/cds}
+
+rm -rf "$OUT"
+mkdir -p "$OUT/unpacked"
+(cd "$OUT/unpacked" && jar -xf "$JAR")
+
+mv "$OUT/unpacked/BOOT-INF/lib" "$OUT/lib"
+# keep the dependency order of the Boot jar, some libraries on the classpath overlap
+CLASS_PATH=$(sed -n 's|^- "BOOT-INF/\(lib/.*\)"$|\1|p' "$OUT/unpacked/BOOT-INF/classpath.idx" | tr '\n' ' ')
+{
+    echo "Main-Class: pl.sak.security.SecurityApplication"
+    echo "Class-Path: $CLASS_PATH" | fold -w 70 | sed '2,$s/^/ /'
+} > "$OUT/MANIFEST.MF"
+jar --create --file "$OUT/application.jar" --manifest "$OUT/MANIFEST.MF" -C "$OUT/unpacked/BOOT-INF/classes" .
+rm -rf "$OUT/unpacked" "$OUT/MANIFEST.MF"
+
+echo "Training run for CDS archive"
+(cd "$OUT" && java -XX:ArchiveClassesAtExit=application.jsa \
+    -Dspring.aot.enabled=true \
+    -jar application.jar \
+    --spring.profiles.active=startup \
+    --security.startup.training-run=true \
+    --server.port=0 > training-run.log 2>&1) || true
+
+if [[ ! -f "$OUT/application.jsa" ]] || ! grep -q "Training run finished" "$OUT/training-run.log"; then
+    echo "Training run failed, see $OUT/training-run.log" >&2
+    exit 1
+fi
+echo "CDS archive written to $OUT/application.jsa"
@@ -0,0 +1,48 @@
+#!/usr/bin/env bash
+# Measures time from process launch until the node is ready to serve, for the plain Boot jar and for the
+# AOT + AppCDS layout produced by build-cds-archive.sh. Only a 2xx from the readiness probe counts, so a node
+# still warming up (503) or answering with an error page is not mistaken for a ready one.
+#
+# usage: measure-startup.sh <boot-jar> [cds-dir] [runs]
+set -euo pipefail
+
+JAR=$(realpath "$1")
+CDS_DIR=$(realpath "${2:-$(dirname "$JAR")/cds}")
+RUNS=${3:-3}
+PORT=${STARTUP_PORT:-18084}
+REPORT=$(dirname "$JAR")/startup-report.txt
+URL="http://localhost:$PORT/actuator/health/readiness"
+
+measure() {
+    local dir=$1
+    shift
+    local start end pid
+    start=$(date +%s%N)
+    (cd "$dir" && exec java "$@" --spring.profiles.active=startup --server.port="$PORT" > /dev/null 2>&1) &
+    pid=$!
+    until [[ $(curl -s -o /dev/null -w '%{http_code}' "$URL") == 2?? ]]; do
+        if ! kill -0 "$pid" 2> /dev/null; then
+            echo "failed"
+            return
+        fi
+        sleep 0.01
+    done
+    end=$(date +%s%N)
+    kill "$pid"
+    wait "$pid" 2> /dev/null || true
+    echo $(((end - start) / 1000000))
+}
+
+{
+    echo "Time to readiness (ms), $RUNS runs each"
+    printf '%-12s' "jvm"
+    for _ in $(seq "$RUNS"); do printf ' %8s' "$(measure "$(dirname "$JAR")" -jar "$JAR")"; done
+    echo
+    if [[ -f "$CDS_DIR/application.jsa" ]]; then
+        printf '%-12s' "aot+cds"
+        for _ in $(seq "$RUNS"); do
+            printf ' %8s' "$(measure "$CDS_DIR" -XX:SharedArchiveFile=application.jsa -Dspring.aot.enabled=true -jar application.jar)"
+        done
+        echo
+    fi
+} | tee "$REPORT"
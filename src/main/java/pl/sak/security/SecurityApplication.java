@@ -3,12 +3,30 @@ package pl.sak.security;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import pl.sak.security.breach.BreachedPasswordIndexBuilder;
+import pl.sak.security.config.NativeRuntimeHints;
+import pl.sak.security.migration.DatabaseMigration;
+
+import java.io.IOException;
+import java.util.Arrays;
 
 @SpringBootApplication
 @EnableDiscoveryClient
+@EnableScheduling
+@ImportRuntimeHints(NativeRuntimeHints.class)
 public class SecurityApplication {
 
-	public static void main(String[] args) {
+	public static void main(String[] args) throws IOException {
+		if (args.length > 0 && DatabaseMigration.COMMAND.equals(args[0])) {
+			DatabaseMigration.main(Arrays.copyOfRange(args, 1, args.length));
+			return;
+		}
+		if (args.length > 0 && BreachedPasswordIndexBuilder.COMMAND.equals(args[0])) {
+			BreachedPasswordIndexBuilder.main(Arrays.copyOfRange(args, 1, args.length));
+			return;
+		}
 		SpringApplication.run(SecurityApplication.class, args);
 	}
 
@@ -0,0 +1,6 @@
+package pl.sak.security.audit;
+
+import pl.sak.security.enums.AuditEventType;
+
+record AuditEvent(AuditEventType type, String email, long occurredAt, long enqueuedNanos) {
+}
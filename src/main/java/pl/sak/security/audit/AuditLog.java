@@ -0,0 +1,202 @@
+package pl.sak.security.audit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import pl.sak.security.enums.AuditEventType;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Append-only security audit log. Request threads publish into a lock-free ring buffer and return
+ * immediately; a single writer thread drains it into multi-row inserts of up to {@code batch-size} rows,
+ * waiting at most {@code max-batch-delay} for a batch to fill up. Every event is also logged to the
+ * {@code security.auth} category, which is sampled and rate-limited in {@code logback-spring.xml}. The log line
+ * carries a masked email; the full address is only ever written to the audit table. Events that record a change
+ * go through {@link #publishAfterCommit}, so a rolled-back registration or password change is never audited.
+ */
+@Slf4j
+@Component
+public class AuditLog {
+
+    private static final String INSERT_SQL = "INSERT INTO security_audit_log (occurred_at, event_type, email) VALUES ";
+    private static final String ROW_PLACEHOLDER = "(?, ?, ?)";
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long OFFER_RETRY_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+    private static final Logger AUTH_EVENTS = LoggerFactory.getLogger("security.auth");
+
+    private final AuditRingBuffer<AuditEvent> ringBuffer;
+    private final JdbcTemplate jdbcTemplate;
+    private final OverflowPolicy overflowPolicy;
+    private final long offerTimeoutNanos;
+    private final int batchSize;
+    private final long maxBatchDelayNanos;
+    private final String fullBatchSql;
+    private final Counter publishedCounter;
+    private final Counter droppedCounter;
+    private final Counter writtenCounter;
+    private final Counter failedCounter;
+    private final Timer flushTimer;
+    private final Timer latencyTimer;
+    private volatile boolean running;
+    private Thread writer;
+
+    public AuditLog(JdbcTemplate jdbcTemplate,
+                    MeterRegistry meterRegistry,
+                    @Value("${security.audit.buffer-size:8192}") int bufferSize,
+                    @Value("${security.audit.overflow-policy:DROP}") OverflowPolicy overflowPolicy,
+                    @Value("${security.audit.offer-timeout:5ms}") Duration offerTimeout,
+                    @Value("${security.audit.batch-size:256}") int batchSize,
+                    @Value("${security.audit.max-batch-delay:50ms}") Duration maxBatchDelay) {
+        this.ringBuffer = new AuditRingBuffer<>(bufferSize);
+        this.jdbcTemplate = jdbcTemplate;
+        this.overflowPolicy = overflowPolicy;
+        this.offerTimeoutNanos = offerTimeout.toNanos();
+        this.batchSize = batchSize;
+        this.maxBatchDelayNanos = maxBatchDelay.toNanos();
+        this.fullBatchSql = insertSql(batchSize);
+        this.publishedCounter = meterRegistry.counter("security.audit.published");
+        this.droppedCounter = meterRegistry.counter("security.audit.dropped");
+        this.writtenCounter = meterRegistry.counter("security.audit.written");
+        this.failedCounter = meterRegistry.counter("security.audit.failed");
+        this.flushTimer = meterRegistry.timer("security.audit.flush");
+        this.latencyTimer = meterRegistry.timer("security.audit.latency");
+        meterRegistry.gauge("security.audit.queued", ringBuffer, AuditRingBuffer::size);
+    }
+
+    @PostConstruct
+    void start() {
+        running = true;
+        writer = new Thread(this::write, "security-audit-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(writer);
+        writer.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    public void publish(AuditEventType type, String email) {
+        AUTH_EVENTS.atInfo()
+                .addKeyValue("event", type)
+                .addKeyValue("email", maskEmail(email))
+                .log("Security event {}", type);
+        AuditEvent event = new AuditEvent(type, email, System.currentTimeMillis(), System.nanoTime());
+        if (ringBuffer.offer(event) || overflowPolicy == OverflowPolicy.WAIT && offerUntilTimeout(event)) {
+            publishedCounter.increment();
+        } else {
+            droppedCounter.increment();
+        }
+    }
+
+    /**
+     * Publishes once the surrounding transaction commits, or straight away when there is none.
+     */
+    public void publishAfterCommit(AuditEventType type, String email) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publish(type, email);
+                }
+            });
+        } else {
+            publish(type, email);
+        }
+    }
+
+    private boolean offerUntilTimeout(AuditEvent event) {
+        long deadline = System.nanoTime() + offerTimeoutNanos;
+        while (System.nanoTime() < deadline) {
+            LockSupport.parkNanos(OFFER_RETRY_PARK_NANOS);
+            if (ringBuffer.offer(event)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void write() {
+        List<AuditEvent> batch = new ArrayList<>(batchSize);
+        while (running || ringBuffer.size() > 0) {
+            ringBuffer.drainTo(batch, batchSize - batch.size());
+            if (batch.isEmpty()) {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+                continue;
+            }
+            boolean batchFull = batch.size() == batchSize;
+            boolean batchDue = System.nanoTime() - batch.get(0).enqueuedNanos() >= maxBatchDelayNanos;
+            if (batchFull || batchDue || !running) {
+                insert(batch);
+                batch.clear();
+            } else {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+        }
+    }
+
+    private void insert(List<AuditEvent> batch) {
+        Object[] args = new Object[batch.size() * 3];
+        int i = 0;
+        for (AuditEvent event : batch) {
+            args[i++] = new Timestamp(event.occurredAt());
+            args[i++] = event.type().name();
+            args[i++] = event.email();
+        }
+        String sql = batch.size() == batchSize ? fullBatchSql : insertSql(batch.size());
+        long start = System.nanoTime();
+        try {
+            jdbcTemplate.update(sql, args);
+            long end = System.nanoTime();
+            flushTimer.record(end - start, TimeUnit.NANOSECONDS);
+            latencyTimer.record(end - batch.get(0).enqueuedNanos(), TimeUnit.NANOSECONDS);
+            writtenCounter.increment(batch.size());
+        } catch (DataAccessException e) {
+            log.warn("Failed to write {} audit events", batch.size(), e);
+            failedCounter.increment(batch.size());
+        }
+    }
+
+    /**
+     * Keeps the first character of the local part and the whole domain, e.g. {@code b***@example.com}.
+     */
+    static String maskEmail(String email) {
+        if (email == null) {
+            return null;
+        }
+        int at = email.lastIndexOf('@');
+        if (at <= 0) {
+            return "***";
+        }
+        return email.charAt(0) + "***" + email.substring(at);
+    }
+
+    private static String insertSql(int rows) {
+        StringBuilder sql = new StringBuilder(INSERT_SQL.length() + rows * (ROW_PLACEHOLDER.length() + 2))
+                .append(INSERT_SQL)
+                .append(ROW_PLACEHOLDER);
+        for (int row = 1; row < rows; row++) {
+            sql.append(", ").append(ROW_PLACEHOLDER);
+        }
+        return sql.toString();
+    }
+}
@@ -0,0 +1,49 @@
+package pl.sak.security.audit;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+
+/**
+ * Creates the monthly Postgres partitions of {@code security_audit_log} ahead of time, so rows only land in the
+ * default partition if maintenance has not run. Old partitions can be detached and archived without touching
+ * the live one.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "security.audit.partition-maintenance.enabled", havingValue = "true")
+public class AuditPartitionMaintainer {
+
+    private static final String CREATE_PARTITION_SQL = "CREATE TABLE IF NOT EXISTS security_audit_log_y%dm%02d "
+            + "PARTITION OF security_audit_log FOR VALUES FROM ('%s') TO ('%s')";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${security.audit.partition-maintenance.cron:0 0 3 * * *}")
+    public void createUpcomingPartitions() {
+        YearMonth current = YearMonth.now();
+        createPartition(current);
+        createPartition(current.plusMonths(1));
+    }
+
+    private void createPartition(YearMonth month) {
+        LocalDate from = month.atDay(1);
+        LocalDate to = month.plusMonths(1).atDay(1);
+        try {
+            jdbcTemplate.execute(String.format(CREATE_PARTITION_SQL, month.getYear(), month.getMonthValue(), from, to));
+        } catch (DataAccessException e) {
+            log.warn("Failed to create audit log partition for {}", month, e);
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package pl.sak.security.audit;
+
+public enum OverflowPolicy {
+    /**
+     * Drop the new event straight away when the buffer is full.
+     */
+    DROP,
+    /**
+     * Park the publishing thread for up to the configured offer timeout, then drop.
+     */
+    WAIT
+}
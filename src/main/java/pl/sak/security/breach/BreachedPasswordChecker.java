@@ -0,0 +1,64 @@
+package pl.sak.security.breach;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Screens passwords against a local {@link BreachedPasswordIndex}, so no password or hash prefix leaves the
+ * service. Screening is disabled when {@code security.breached-passwords.index} is blank.
+ */
+@Slf4j
+@Component
+public class BreachedPasswordChecker {
+
+    private final BreachedPasswordIndex index;
+    private final Counter rejected;
+
+    public BreachedPasswordChecker(@Value("${security.breached-passwords.index:}") String indexFile,
+                                   MeterRegistry meterRegistry) throws IOException {
+        if (indexFile.isBlank()) {
+            this.index = null;
+            log.info("Breached-password screening disabled");
+        } else {
+            this.index = new BreachedPasswordIndex(Path.of(indexFile));
+            log.info("Loaded {} breached-password hashes from {}", index.size(), indexFile);
+        }
+        this.rejected = meterRegistry.counter("security.breached-passwords.rejected");
+    }
+
+    public boolean isBreached(String password) {
+        if (index == null || password == null) {
+            return false;
+        }
+        boolean breached = index.contains(sha1(password));
+        if (breached) {
+            rejected.increment();
+        }
+        return breached;
+    }
+
+    @PreDestroy
+    void close() throws IOException {
+        if (index != null) {
+            index.close();
+        }
+    }
+
+    private static byte[] sha1(String password) {
+        try {
+            return MessageDigest.getInstance("SHA-1").digest(password.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
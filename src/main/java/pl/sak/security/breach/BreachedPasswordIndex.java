@@ -0,0 +1,99 @@
+package pl.sak.security.breach;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Read-only view of a breached-password index file written by {@link BreachedPasswordIndexBuilder}. The file
+ * holds the first 8 bytes of every SHA-1 hash as a sorted array of unsigned longs, preceded by a fan-out table
+ * of bucket offsets keyed by the top 16 bits. A lookup reads two fan-out entries and binary searches a bucket
+ * of a few thousand entries, all in mapped memory, so the heap holds only the segment buffers.
+ * <p>
+ * Truncating hashes to 64 bits makes a false positive for a password outside the list roughly
+ * {@code count / 2^64} likely, which is negligible for rejecting passwords.
+ * <p>
+ * File layout (big endian): magic, version (4 bytes each), entry count (8 bytes), padding to
+ * {@value #HEADER_SIZE} bytes, {@code 2^16 + 1} bucket start offsets (8 bytes each), entries (8 bytes each).
+ */
+public class BreachedPasswordIndex implements Closeable {
+
+    static final int MAGIC = 0x4250_4958;
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 64;
+    static final int BUCKET_BITS = 16;
+    static final int BUCKETS = 1 << BUCKET_BITS;
+    static final long ENTRIES_OFFSET = HEADER_SIZE + (BUCKETS + 1) * 8L;
+    private static final int SEGMENT_BITS = 27;
+    private static final long SEGMENT_MASK = (1L << SEGMENT_BITS) - 1;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer fanOut;
+    private final MappedByteBuffer[] segments;
+    private final long count;
+
+    public BreachedPasswordIndex(Path file) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        this.fanOut = channel.map(FileChannel.MapMode.READ_ONLY, 0, ENTRIES_OFFSET);
+        if (fanOut.getInt(0) != MAGIC || fanOut.getInt(4) != VERSION) {
+            channel.close();
+            throw new IOException("Not a breached-password index: " + file);
+        }
+        this.count = fanOut.getLong(8);
+        if (channel.size() != ENTRIES_OFFSET + count * 8) {
+            channel.close();
+            throw new IOException("Truncated breached-password index: " + file);
+        }
+        this.segments = new MappedByteBuffer[(int) ((count + SEGMENT_MASK) >>> SEGMENT_BITS)];
+        for (int i = 0; i < segments.length; i++) {
+            long first = (long) i << SEGMENT_BITS;
+            long length = Math.min(count - first, SEGMENT_MASK + 1) * 8;
+            segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, ENTRIES_OFFSET + first * 8, length);
+        }
+    }
+
+    /**
+     * Checks a full 20-byte SHA-1 digest.
+     */
+    public boolean contains(byte[] sha1) {
+        long prefix = 0;
+        for (int i = 0; i < 8; i++) {
+            prefix = prefix << 8 | (sha1[i] & 0xFF);
+        }
+        return contains(prefix);
+    }
+
+    public boolean contains(long hashPrefix) {
+        int bucket = (int) (hashPrefix >>> (64 - BUCKET_BITS));
+        long low = fanOut.getLong(HEADER_SIZE + bucket * 8);
+        long high = fanOut.getLong(HEADER_SIZE + (bucket + 1) * 8) - 1;
+        while (low <= high) {
+            long middle = (low + high) >>> 1;
+            int comparison = Long.compareUnsigned(entry(middle), hashPrefix);
+            if (comparison < 0) {
+                low = middle + 1;
+            } else if (comparison > 0) {
+                high = middle - 1;
+            } else {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public long size() {
+        return count;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private long entry(long index) {
+        return segments[(int) (index >>> SEGMENT_BITS)].getLong((int) (index & SEGMENT_MASK) << 3);
+    }
+}
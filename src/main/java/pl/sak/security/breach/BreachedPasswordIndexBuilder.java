@@ -0,0 +1,139 @@
+package pl.sak.security.breach;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static pl.sak.security.breach.BreachedPasswordIndex.BUCKETS;
+import static pl.sak.security.breach.BreachedPasswordIndex.BUCKET_BITS;
+import static pl.sak.security.breach.BreachedPasswordIndex.ENTRIES_OFFSET;
+import static pl.sak.security.breach.BreachedPasswordIndex.HEADER_SIZE;
+import static pl.sak.security.breach.BreachedPasswordIndex.MAGIC;
+import static pl.sak.security.breach.BreachedPasswordIndex.VERSION;
+
+/**
+ * Offline command that converts a breached-password list into a {@link BreachedPasswordIndex} file:
+ * {@code java -jar security.jar build-breach-index <input> <output> [min-count]}.
+ * <p>
+ * The input is either one file of {@code SHA1:COUNT} lines ordered by hash, as in the downloadable Pwned
+ * Passwords list, or a directory of range files named after a 5-character hex hash prefix holding
+ * {@code SUFFIX:COUNT} lines; any other file in the directory is ignored. Entries seen fewer than
+ * {@code min-count} times are skipped to shrink the index. The list is streamed once, so building needs no more
+ * memory than the fan-out table.
+ */
+public final class BreachedPasswordIndexBuilder {
+
+    public static final String COMMAND = "build-breach-index";
+    private static final Pattern RANGE_FILE = Pattern.compile("[0-9A-Fa-f]{5}");
+
+    private final DataOutputStream output;
+    private final long[] bucketCounts = new long[BUCKETS];
+    private final long minCount;
+    private long count;
+    private long previous;
+
+    private BreachedPasswordIndexBuilder(DataOutputStream output, long minCount) {
+        this.output = output;
+        this.minCount = minCount;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("usage: " + COMMAND + " <input-file-or-directory> <output> [min-count]");
+            System.exit(2);
+        }
+        long entries = build(Path.of(args[0]), Path.of(args[1]), args.length > 2 ? Long.parseLong(args[2]) : 1);
+        System.out.println("Wrote " + entries + " hashes to " + args[1]);
+    }
+
+    /**
+     * Builds the index and returns the number of distinct hashes written.
+     */
+    public static long build(Path input, Path output, long minCount) throws IOException {
+        try (RandomAccessFile file = new RandomAccessFile(output.toFile(), "rw")) {
+            file.setLength(0);
+            file.seek(ENTRIES_OFFSET);
+            var stream = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file.getFD()), 1 << 16));
+            BreachedPasswordIndexBuilder builder = new BreachedPasswordIndexBuilder(stream, minCount);
+            if (Files.isDirectory(input)) {
+                for (Path range : rangeFiles(input)) {
+                    builder.read(range, range.getFileName().toString());
+                }
+            } else {
+                builder.read(input, "");
+            }
+            stream.flush();
+            builder.writeHeader(file);
+            return builder.count;
+        }
+    }
+
+    private static List<Path> rangeFiles(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                    .filter(file -> RANGE_FILE.matcher(file.getFileName().toString()).matches())
+                    .sorted(Comparator.comparing(file -> file.getFileName().toString().toUpperCase(Locale.ROOT)))
+                    .toList();
+        }
+    }
+
+    private void read(Path file, String hashPrefix) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.US_ASCII)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                int separator = line.indexOf(':');
+                if (separator >= 0 && Long.parseLong(line.substring(separator + 1).trim()) < minCount) {
+                    continue;
+                }
+                String hash = hashPrefix + line.substring(0, separator < 0 ? line.length() : separator);
+                add(Long.parseUnsignedLong(hash.substring(0, 16), 16));
+            }
+        }
+    }
+
+    private void add(long hash) throws IOException {
+        if (count > 0) {
+            int comparison = Long.compareUnsigned(hash, previous);
+            if (comparison < 0) {
+                throw new IllegalArgumentException("Input is not ordered by hash at " + Long.toHexString(hash));
+            }
+            if (comparison == 0) {
+                return;
+            }
+        }
+        output.writeLong(hash);
+        bucketCounts[(int) (hash >>> (64 - BUCKET_BITS))]++;
+        previous = hash;
+        count++;
+    }
+
+    private void writeHeader(RandomAccessFile file) throws IOException {
+        file.seek(0);
+        file.writeInt(MAGIC);
+        file.writeInt(VERSION);
+        file.writeLong(count);
+        file.seek(HEADER_SIZE);
+        var fanOut = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file.getFD()), 1 << 16));
+        long start = 0;
+        for (long bucketCount : bucketCounts) {
+            fanOut.writeLong(start);
+            start += bucketCount;
+        }
+        fanOut.writeLong(start);
+        fanOut.flush();
+    }
+}
@@ -0,0 +1,58 @@
+package pl.sak.security.cache;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+@RequiredArgsConstructor
+public abstract class AbstractUserInvalidationBus implements UserInvalidationBus {
+
+    protected final UserCache userCache;
+    private final List<SessionRevocationHandler> sessionRevocationHandlers = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publishUserChanged(String email) {
+        afterCommit(() -> {
+            userCache.evict(email);
+            broadcast(email);
+        });
+    }
+
+    @Override
+    public void publishSessionsRevoked(long userId) {
+        afterCommit(() -> {
+            long revokedAt = System.currentTimeMillis();
+            sessionsRevoked(userId, revokedAt);
+            broadcastSessionsRevoked(userId, revokedAt);
+        });
+    }
+
+    @Override
+    public void onSessionsRevoked(SessionRevocationHandler handler) {
+        sessionRevocationHandlers.add(handler);
+    }
+
+    protected void sessionsRevoked(long userId, long revokedAt) {
+        sessionRevocationHandlers.forEach(handler -> handler.sessionsRevoked(userId, revokedAt));
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    protected abstract void broadcast(String email);
+
+    protected abstract void broadcastSessionsRevoked(long userId, long revokedAt);
+}
@@ -0,0 +1,24 @@
+package pl.sak.security.cache;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-process stand-in for single-node runs and tests: the local eviction is all there is to do.
+ */
+@Component
+@ConditionalOnProperty(name = "security.cache.invalidation.mode", havingValue = "local")
+public class LocalUserInvalidationBus extends AbstractUserInvalidationBus {
+
+    public LocalUserInvalidationBus(UserCache userCache) {
+        super(userCache);
+    }
+
+    @Override
+    protected void broadcast(String email) {
+    }
+
+    @Override
+    protected void broadcastSessionsRevoked(long userId, long revokedAt) {
+    }
+}
@@ -0,0 +1,215 @@
+package pl.sak.security.cache;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCallback;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cluster-wide invalidation over Postgres {@code LISTEN/NOTIFY}. Changed emails are collected for a short
+ * batch window and sent as newline separated {@code pg_notify} payloads. Every node listens on a dedicated
+ * connection outside the pool and drops its whole cache after (re)connecting, since notifications sent while
+ * it was not listening are lost. Session revocations travel the same way, as {@code userId:revokedAt} on a second
+ * channel, {@code <channel>_sessions}; one sent while a node is disconnected is lost for that node's session store.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "security.cache.invalidation.mode", havingValue = "postgres", matchIfMissing = true)
+public class PostgresUserInvalidationBus extends AbstractUserInvalidationBus {
+
+    static final int MAX_PAYLOAD_BYTES = 7900;
+    private static final String SEPARATOR = "\n";
+    private static final String REVOCATION_SEPARATOR = ":";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String url;
+    private final String username;
+    private final String password;
+    private final String channel;
+    private final String sessionsChannel;
+    private final long batchWindowMs;
+    private final int pollTimeoutMs;
+    private final long reconnectDelayMs;
+
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+    private final Set<String> pendingRevocations = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "user-invalidation-flusher");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile boolean running;
+    private Thread listener;
+
+    public PostgresUserInvalidationBus(UserCache userCache,
+                                       JdbcTemplate jdbcTemplate,
+                                       @Value("${spring.datasource.url}") String url,
+                                       @Value("${spring.datasource.username}") String username,
+                                       @Value("${spring.datasource.password}") String password,
+                                       @Value("${security.cache.invalidation.channel:user_changed}") String channel,
+                                       @Value("${security.cache.invalidation.batch-window-ms:5}") long batchWindowMs,
+                                       @Value("${security.cache.invalidation.poll-timeout-ms:500}") int pollTimeoutMs,
+                                       @Value("${security.cache.invalidation.reconnect-delay-ms:1000}") long reconnectDelayMs) {
+        super(userCache);
+        if (!channel.matches("[a-z_][a-z0-9_]*")) {
+            throw new IllegalArgumentException("Invalid notification channel: " + channel);
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.url = url;
+        this.username = username;
+        this.password = password;
+        this.channel = channel;
+        this.sessionsChannel = channel + "_sessions";
+        this.batchWindowMs = batchWindowMs;
+        this.pollTimeoutMs = pollTimeoutMs;
+        this.reconnectDelayMs = reconnectDelayMs;
+    }
+
+    @PostConstruct
+    void start() {
+        running = true;
+        listener = new Thread(this::listen, "user-invalidation-listener");
+        listener.setDaemon(true);
+        listener.start();
+        flusher.scheduleWithFixedDelay(this::flush, batchWindowMs, batchWindowMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        flusher.shutdown();
+        flusher.awaitTermination(1, TimeUnit.SECONDS);
+        flush();
+        listener.interrupt();
+        listener.join(pollTimeoutMs * 2L);
+    }
+
+    @Override
+    protected void broadcast(String email) {
+        pending.add(email);
+    }
+
+    @Override
+    protected void broadcastSessionsRevoked(long userId, long revokedAt) {
+        pendingRevocations.add(userId + REVOCATION_SEPARATOR + revokedAt);
+    }
+
+    void flush() {
+        flush(pending, channel);
+        flush(pendingRevocations, sessionsChannel);
+    }
+
+    private void flush(Set<String> pending, String channel) {
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<String> values = new ArrayList<>();
+        for (Iterator<String> iterator = pending.iterator(); iterator.hasNext(); ) {
+            values.add(iterator.next());
+            iterator.remove();
+        }
+        for (String payload : toPayloads(values)) {
+            try {
+                jdbcTemplate.execute("select pg_notify(?, ?)", (PreparedStatementCallback<Boolean>) statement -> {
+                    statement.setString(1, channel);
+                    statement.setString(2, payload);
+                    return statement.execute();
+                });
+            } catch (DataAccessException e) {
+                log.warn("Failed to publish on {}, retrying in next batch", channel, e);
+                pending.addAll(List.of(payload.split(SEPARATOR)));
+            }
+        }
+    }
+
+    static List<String> toPayloads(List<String> emails) {
+        List<String> payloads = new ArrayList<>();
+        StringBuilder payload = new StringBuilder();
+        int payloadBytes = 0;
+        for (String email : emails) {
+            int emailBytes = email.getBytes(StandardCharsets.UTF_8).length;
+            if (payloadBytes > 0 && payloadBytes + emailBytes + 1 > MAX_PAYLOAD_BYTES) {
+                payloads.add(payload.toString());
+                payload.setLength(0);
+                payloadBytes = 0;
+            }
+            if (payloadBytes > 0) {
+                payload.append(SEPARATOR);
+                payloadBytes++;
+            }
+            payload.append(email);
+            payloadBytes += emailBytes;
+        }
+        if (payloadBytes > 0) {
+            payloads.add(payload.toString());
+        }
+        return payloads;
+    }
+
+    private void listen() {
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(url, username, password)) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + channel);
+                    statement.execute("LISTEN " + sessionsChannel);
+                }
+                userCache.evictAll();
+                log.info("Listening for user invalidations on channel {}", channel);
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(pollTimeoutMs);
+                    if (notifications == null) {
+                        continue;
+                    }
+                    for (PGNotification notification : notifications) {
+                        boolean revocation = sessionsChannel.equals(notification.getName());
+                        for (String value : notification.getParameter().split(SEPARATOR)) {
+                            if (revocation) {
+                                int separator = value.indexOf(REVOCATION_SEPARATOR);
+                                sessionsRevoked(Long.parseLong(value.substring(0, separator)),
+                                        Long.parseLong(value.substring(separator + 1)));
+                            } else {
+                                userCache.evict(value);
+                            }
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                if (running) {
+                    log.warn("User invalidation listener disconnected, reconnecting in {} ms", reconnectDelayMs, e);
+                    sleepBeforeReconnect();
+                }
+            }
+        }
+    }
+
+    private void sleepBeforeReconnect() {
+        try {
+            Thread.sleep(reconnectDelayMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package pl.sak.security.cache;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-node cache of loaded users keyed by email. Entries are evicted by the {@link UserInvalidationBus}
+ * whenever any node changes the user, and expire after a TTL as a safety net.
+ * <p>
+ * Callers take a {@link #stamp()} before loading and hand it to {@link #put}. An eviction leaves a tombstone
+ * carrying a newer stamp, so a load that started before the invalidation arrived cannot put the stale user
+ * back. When a tombstone itself has to go, its stamp is raised into a floor below which every put is refused.
+ */
+@Component
+public class UserCache {
+
+    private static final int EVICTION_SAMPLE = 8;
+
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong clock = new AtomicLong();
+    private final AtomicLong floor = new AtomicLong();
+    private final long ttlNanos;
+    private final int maxSize;
+
+    public UserCache(@Value("${security.cache.user.ttl:5m}") Duration ttl,
+                     @Value("${security.cache.user.max-size:100000}") int maxSize) {
+        this.ttlNanos = ttl.toNanos();
+        this.maxSize = maxSize;
+    }
+
+    public Optional<UserDetails> get(String email) {
+        Entry entry = entries.get(email);
+        if (entry == null) {
+            return Optional.empty();
+        }
+        if (System.nanoTime() - entry.loadedAt() > ttlNanos) {
+            remove(email, entry);
+            return Optional.empty();
+        }
+        return Optional.ofNullable(entry.user());
+    }
+
+    /**
+     * Returns the stamp to pass to {@link #put} for a load starting now.
+     */
+    public long stamp() {
+        return clock.get();
+    }
+
+    /**
+     * Caches a user loaded after {@code stamp} was taken, unless the user was invalidated since.
+     *
+     * @return whether the user was cached
+     */
+    public boolean put(String email, UserDetails user, long stamp) {
+        if (entries.size() >= maxSize && !entries.containsKey(email)) {
+            evictOne();
+        }
+        boolean[] stored = new boolean[1];
+        entries.compute(email, (key, current) -> {
+            if (stamp < floor.get() || current != null && current.stamp() > stamp) {
+                return current;
+            }
+            stored[0] = true;
+            return new Entry(user, System.nanoTime(), stamp);
+        });
+        return stored[0];
+    }
+
+    public void evict(String email) {
+        entries.put(email, new Entry(null, System.nanoTime(), clock.incrementAndGet()));
+    }
+
+    public void evictAll() {
+        floor.accumulateAndGet(clock.incrementAndGet(), Math::max);
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Drops the oldest of the first few entries the map iterates over. Keys land in buckets by hash, so the
+     * sample is effectively random, and preferring the oldest keeps a freshly loaded user from being the victim.
+     */
+    private void evictOne() {
+        Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+        Map.Entry<String, Entry> victim = null;
+        for (int i = 0; i < EVICTION_SAMPLE && iterator.hasNext(); i++) {
+            Map.Entry<String, Entry> candidate = iterator.next();
+            if (victim == null || candidate.getValue().loadedAt() < victim.getValue().loadedAt()) {
+                victim = candidate;
+            }
+        }
+        if (victim != null) {
+            remove(victim.getKey(), victim.getValue());
+        }
+    }
+
+    private void remove(String email, Entry entry) {
+        if (entries.remove(email, entry) && entry.user() == null) {
+            floor.accumulateAndGet(entry.stamp(), Math::max);
+        }
+    }
+
+    private record Entry(UserDetails user, long loadedAt, long stamp) {
+    }
+}
@@ -0,0 +1,28 @@
+package pl.sak.security.cache;
+
+/**
+ * Propagates user changes to every node so that per-node caches drop stale entries and per-node session stores
+ * drop revoked sessions.
+ */
+public interface UserInvalidationBus {
+
+    /**
+     * Evicts the user locally and notifies the other nodes. When called inside a transaction
+     * the notification is sent only after a successful commit.
+     */
+    void publishUserChanged(String email);
+
+    /**
+     * Revokes every session the user holds on this node and the others, through the handlers registered with
+     * {@link #onSessionsRevoked}. When called inside a transaction it happens only after a successful commit, and
+     * every node is handed that commit time, so a repeated delivery revokes nothing issued since.
+     */
+    void publishSessionsRevoked(long userId);
+
+    void onSessionsRevoked(SessionRevocationHandler handler);
+
+    @FunctionalInterface
+    interface SessionRevocationHandler {
+        void sessionsRevoked(long userId, long revokedAt);
+    }
+}
@@ -1,18 +1,24 @@
 package pl.sak.security.config;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.lang.NonNull;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
+import pl.sak.security.enums.Permission;
+import pl.sak.security.jfr.JwtFilterEvent;
+import pl.sak.security.permission.PermissionAuthenticationToken;
 import pl.sak.security.service.JwtTokenService;
+import pl.sak.security.session.OpaqueTokenService;
+import pl.sak.security.session.Session;
 import pl.sak.security.service.UserService;
 
 import java.io.IOException;
@@ -23,6 +29,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtTokenService jwtTokenService;
     private final UserService userService;
+    private final ObjectProvider<OpaqueTokenService> opaqueTokenService;
 
     @Override
     protected void doFilterInternal(@NonNull HttpServletRequest request,
@@ -36,16 +43,51 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             return;
         }
 
-        jwt = authHeader.substring(7);
-        userEmail = jwtTokenService.extractUsername(jwt);
-        if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = this.userService.loadUserByUsername(userEmail);
-            if (jwtTokenService.isTokenValid(jwt, userDetails)) {
-                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
-                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                SecurityContextHolder.getContext().setAuthentication(authToken);
+        JwtFilterEvent event = new JwtFilterEvent();
+        event.begin();
+        event.outcome = "rejected";
+        try {
+            jwt = authHeader.substring(7);
+            OpaqueTokenService opaqueTokens = opaqueTokenService.getIfAvailable();
+            if (opaqueTokens != null && OpaqueTokenService.isOpaqueToken(jwt)) {
+                if (authenticateOpaque(opaqueTokens, jwt, request)) {
+                    event.outcome = "authenticated";
+                }
+            } else {
+                Claims claims = jwtTokenService.parseClaims(jwt);
+                userEmail = claims.getSubject();
+                if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+                    UserDetails userDetails = this.userService.loadUserByUsername(userEmail);
+                    if (jwtTokenService.isTokenValid(claims, userDetails)) {
+                        Long permissions = jwtTokenService.extractPermissions(claims);
+                        PermissionAuthenticationToken authToken = new PermissionAuthenticationToken(userDetails,
+                                permissions != null ? permissions : Permission.toMask(userDetails.getAuthorities()));
+                        authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                        SecurityContextHolder.getContext().setAuthentication(authToken);
+                        event.outcome = "authenticated";
+                    }
+                }
+            }
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.uri = request.getRequestURI();
+                event.commit();
             }
         }
         filterChain.doFilter(request, response);
     }
+
+    private boolean authenticateOpaque(OpaqueTokenService opaqueTokens, String token, HttpServletRequest request) {
+        Session session = opaqueTokens.resolve(token).orElse(null);
+        if (session == null || SecurityContextHolder.getContext().getAuthentication() != null) {
+            return false;
+        }
+        UserDetails userDetails = userService.loadUserByUsername(session.email());
+        PermissionAuthenticationToken authToken = new PermissionAuthenticationToken(userDetails,
+                session.userRole().getPermissionMask());
+        authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+        SecurityContextHolder.getContext().setAuthentication(authToken);
+        return true;
+    }
 }
@@ -0,0 +1,94 @@
+package pl.sak.security.config;
+
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import pl.sak.security.exception.ErrorMessage;
+import pl.sak.security.exception.dto.ValidationErrorDto;
+import pl.sak.security.model.request.AuthenticationRequest;
+import pl.sak.security.model.request.ChangePasswordRequest;
+import pl.sak.security.model.request.RegisterRequest;
+import pl.sak.security.model.response.AuthenticationResponse;
+import pl.sak.security.model.response.ChangePasswordResponse;
+
+import java.util.stream.Stream;
+
+/**
+ * Reachability metadata for the native image that Spring AOT cannot infer: reflective lookups in jjwt,
+ * Liquibase change classes and resources, Hibernate dialects, the Lombok-built DTOs bound by Jackson, and the JDK
+ * proxies datasource-proxy puts around the JDBC objects for slow-query logging.
+ */
+public class NativeRuntimeHints implements RuntimeHintsRegistrar {
+
+    private static final Class<?>[] DTO_TYPES = {
+            AuthenticationRequest.class,
+            RegisterRequest.class,
+            ChangePasswordRequest.class,
+            AuthenticationResponse.class,
+            ChangePasswordResponse.class,
+            ErrorMessage.class,
+            ValidationErrorDto.class
+    };
+
+    private static final String[] JJWT_TYPES = {
+            "io.jsonwebtoken.impl.DefaultJwtBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtParserBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtParser",
+            "io.jsonwebtoken.impl.DefaultClaims",
+            "io.jsonwebtoken.impl.compression.DeflateCompressionCodec",
+            "io.jsonwebtoken.impl.compression.GzipCompressionCodec",
+            "io.jsonwebtoken.jackson.io.JacksonSerializer",
+            "io.jsonwebtoken.jackson.io.JacksonDeserializer",
+            "io.jsonwebtoken.jackson.io.JacksonDeserializer$MappedTypeDeserializer"
+    };
+
+    private static final String[] LIQUIBASE_TYPES = {
+            "liquibase.change.core.CreateTableChange",
+            "liquibase.change.core.AddColumnChange",
+            "liquibase.change.core.LoadDataChange",
+            "liquibase.change.core.RawSQLChange",
+            "liquibase.change.core.SQLFileChange",
+            "liquibase.change.ColumnConfig",
+            "liquibase.change.AddColumnConfig",
+            "liquibase.change.ConstraintsConfig",
+            "liquibase.change.core.LoadDataColumnConfig"
+    };
+
+    private static final String[] HIBERNATE_TYPES = {
+            "org.hibernate.dialect.PostgreSQLDialect",
+            "org.hibernate.dialect.H2Dialect"
+    };
+
+    private static final String[] JDBC_PROXY_TYPES = {
+            "javax.sql.DataSource",
+            "java.sql.Connection",
+            "java.sql.Statement",
+            "java.sql.PreparedStatement",
+            "java.sql.CallableStatement",
+            "java.sql.ResultSet"
+    };
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        new BindingReflectionHintsRegistrar().registerReflectionHints(hints.reflection(), DTO_TYPES);
+        Stream.of(JJWT_TYPES, LIQUIBASE_TYPES, HIBERNATE_TYPES)
+                .flatMap(Stream::of)
+                .forEach(type -> hints.reflection().registerType(TypeReference.of(type),
+                        MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                        MemberCategory.INVOKE_PUBLIC_METHODS,
+                        MemberCategory.DECLARED_FIELDS));
+
+        Stream.of(JDBC_PROXY_TYPES).forEach(type -> hints.proxies().registerJdkProxy(
+                TypeReference.of("net.ttddyy.dsproxy.proxy.ProxyJdbcObject"), TypeReference.of(type)));
+
+        hints.resources()
+                .registerPattern("liquibase-security-changelog.xml")
+                .registerPattern("changesets/*.xml")
+                .registerPattern("data/*.csv")
+                .registerPattern("liquibase.build.properties")
+                .registerPattern("www.liquibase.org/xml/ns/dbchangelog/*.xsd")
+                .registerPattern("jfr/*.jfc");
+    }
+}
@@ -1,10 +1,23 @@
 package pl.sak.security.config;
 
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.Pointcut;
+import org.springframework.aop.support.Pointcuts;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.authorization.method.AuthorizationManagerBeforeMethodInterceptor;
+import org.springframework.security.config.annotation.ObjectPostProcessor;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -14,9 +27,22 @@ import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.header.HeaderWriterFilter;
+import org.springframework.security.web.util.matcher.IpAddressMatcher;
+import pl.sak.security.enums.Permission;
+import pl.sak.security.jfr.JfrPasswordEncoder;
+import pl.sak.security.limiter.ConcurrencyLimitFilter;
+import pl.sak.security.lockout.LockoutPreAuthenticationChecks;
+import pl.sak.security.lockout.LoginAttemptTracker;
+import pl.sak.security.permission.PermissionAuthorizationManager;
+import pl.sak.security.permission.RequiresPermission;
 import pl.sak.security.service.UserService;
 
+import java.util.Arrays;
+import java.util.List;
+
 import static org.springframework.security.config.Customizer.withDefaults;
 
 @Configuration
@@ -32,26 +58,58 @@ public class SecurityConfig {
             "/swagger-ui.html",
             "/v3/api-docs/",
             "/eureka/**",
+            "/actuator/health/**",
             "/auths/**"
     };
     private final JwtAuthenticationFilter jwtAuthFilter;
+    private final ConcurrencyLimitFilter concurrencyLimitFilter;
+    private final LoginAttemptTracker loginAttemptTracker;
 
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(
+            HttpSecurity http,
+            @Value("${security.token.verification.allowed-addresses:127.0.0.1/32,::1/128}") String[] verificationCallers)
+            throws Exception {
         return http
                 .csrf(AbstractHttpConfigurer::disable)
                 .authorizeHttpRequests(authorize -> authorize
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers(AUTH_WHITELIST).permitAll()
+                        .requestMatchers("/tokens/**").access(fromAddresses(verificationCallers))
+                        .requestMatchers(HttpMethod.POST, "/actuator/loggers/**")
+                        .hasAuthority(Permission.LOGGING_CONFIGURE.getAuthority())
                         .requestMatchers("/customers/**", "/drivers/**", "/clients/**")
                         .authenticated()
                         .anyRequest().authenticated())
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authenticationProvider(daoAuthenticationProvider(passwordEncoder()))
                 .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class)
+                .addFilterBefore(concurrencyLimitFilter, JwtAuthenticationFilter.class)
                 .httpBasic(withDefaults())
+                // Streaming exports commit the response on an async thread, so write headers before the chain runs
+                .headers(headers -> headers.addObjectPostProcessor(new ObjectPostProcessor<HeaderWriterFilter>() {
+                    @Override
+                    public <O extends HeaderWriterFilter> O postProcess(O filter) {
+                        filter.setShouldWriteHeadersEagerly(true);
+                        return filter;
+                    }
+                }))
                 .build();
     }
 
+    /**
+     * Token verification answers for any token without authenticating the caller, so it is only served to the
+     * mesh addresses in {@code security.token.verification.allowed-addresses}.
+     */
+    private static AuthorizationManager<RequestAuthorizationContext> fromAddresses(String[] addresses) {
+        List<IpAddressMatcher> matchers = Arrays.stream(addresses)
+                .map(String::trim)
+                .map(IpAddressMatcher::new)
+                .toList();
+        return (authentication, context) -> new AuthorizationDecision(matchers.stream()
+                .anyMatch(matcher -> matcher.matches(context.getRequest())));
+    }
+
     @Bean
     public AuthenticationManager authenticationManager(AuthenticationConfiguration config) throws Exception {
         return config.getAuthenticationManager();
@@ -62,12 +120,22 @@ public class SecurityConfig {
         DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
         provider.setUserDetailsService(userService);
         provider.setPasswordEncoder(passwordEncoder);
+        provider.setPreAuthenticationChecks(new LockoutPreAuthenticationChecks(loginAttemptTracker));
         return provider;
     }
 
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    static Advisor requiresPermissionAuthorization() {
+        Pointcut pointcut = Pointcuts.union(
+                new AnnotationMatchingPointcut(RequiresPermission.class, true),
+                new AnnotationMatchingPointcut(null, RequiresPermission.class, true));
+        return new AuthorizationManagerBeforeMethodInterceptor(pointcut, new PermissionAuthorizationManager());
+    }
+
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        return new JfrPasswordEncoder(new BCryptPasswordEncoder());
     }
 }
 
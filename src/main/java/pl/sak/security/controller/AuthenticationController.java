@@ -6,6 +6,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -27,6 +28,7 @@ import static org.springframework.http.HttpHeaders.AUTHORIZATION;
 @RestController
 @RequestMapping("/auths")
 @RequiredArgsConstructor
+@ConditionalOnProperty(name = "security.web.mode", havingValue = "servlet", matchIfMissing = true)
 @Tag(name = "Authorization", description = "Authorization api")
 public class AuthenticationController {
 
@@ -56,6 +58,18 @@ public class AuthenticationController {
         return new ResponseEntity<>(response, HttpStatus.OK);
     }
 
+    @Operation(summary = "User logout.",
+            description = "This operation revokes the opaque token passed in the Authorization header."
+                    + " JWTs cannot be revoked and simply expire.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "No Content")
+    })
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@RequestHeader(value = AUTHORIZATION) String authorization) {
+        authenticationService.logout(authorization);
+        return ResponseEntity.noContent().build();
+    }
+
     @PatchMapping("/change-password")
     public ResponseEntity<ChangePasswordResponse> changePassword(@RequestBody @Valid ChangePasswordRequest request,
                                                                  @RequestHeader(value = AUTHORIZATION) String authorization) {
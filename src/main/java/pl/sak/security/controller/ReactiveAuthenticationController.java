@@ -0,0 +1,85 @@
+package pl.sak.security.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import pl.sak.security.model.request.AuthenticationRequest;
+import pl.sak.security.model.request.ChangePasswordRequest;
+import pl.sak.security.model.request.RegisterRequest;
+import pl.sak.security.model.response.AuthenticationResponse;
+import pl.sak.security.model.response.ChangePasswordResponse;
+import pl.sak.security.service.AuthenticationService;
+import pl.sak.security.service.ReactiveAuthenticationService;
+import reactor.core.publisher.Mono;
+
+import static org.springframework.http.HttpHeaders.AUTHORIZATION;
+
+/**
+ * Replaces {@link AuthenticationController} when {@code security.web.mode=reactive}. The endpoints, payloads
+ * and errors are the same; responses are completed asynchronously once the password work is done.
+ */
+@RestController
+@RequestMapping("/auths")
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "security.web.mode", havingValue = "reactive")
+@Tag(name = "Authorization", description = "Authorization api")
+public class ReactiveAuthenticationController {
+
+    private final ReactiveAuthenticationService reactiveAuthenticationService;
+    private final AuthenticationService authenticationService;
+
+    @Operation(summary = "User registration.",
+            description = "This operation enables both users and administrators to registers the user"
+                    + " using RegisterRequest class in the body.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "OK")
+    })
+    @PostMapping("/register")
+    public Mono<ResponseEntity<AuthenticationResponse>> register(@RequestBody @Valid RegisterRequest request) {
+        return reactiveAuthenticationService.register(request)
+                .map(response -> new ResponseEntity<>(response, HttpStatus.OK));
+    }
+
+    @Operation(summary = "User authenticate.",
+            description = "This operation enables both users and administrators to authenticate to the user"
+                    + " using AuthenticationRequest class in the body.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "OK")
+    })
+    @PostMapping("/authenticate")
+    public Mono<ResponseEntity<AuthenticationResponse>> authenticate(@RequestBody @Valid AuthenticationRequest request) {
+        return reactiveAuthenticationService.authenticate(request)
+                .map(response -> new ResponseEntity<>(response, HttpStatus.OK));
+    }
+
+    @Operation(summary = "User logout.",
+            description = "This operation revokes the opaque token passed in the Authorization header."
+                    + " JWTs cannot be revoked and simply expire.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "No Content")
+    })
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@RequestHeader(value = AUTHORIZATION) String authorization) {
+        authenticationService.logout(authorization);
+        return ResponseEntity.noContent().build();
+    }
+
+    @PatchMapping("/change-password")
+    public Mono<ResponseEntity<ChangePasswordResponse>> changePassword(@RequestBody @Valid ChangePasswordRequest request,
+                                                                       @RequestHeader(value = AUTHORIZATION) String authorization) {
+        return reactiveAuthenticationService.changePassword(request, authorization)
+                .map(response -> new ResponseEntity<>(response, HttpStatus.OK));
+    }
+}
@@ -0,0 +1,56 @@
+package pl.sak.security.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import pl.sak.security.model.request.TokenBatchVerificationRequest;
+import pl.sak.security.model.request.TokenVerificationRequest;
+import pl.sak.security.model.response.TokenBatchVerificationResponse;
+import pl.sak.security.model.response.TokenVerificationResponse;
+import pl.sak.security.service.TokenVerificationService;
+
+@RestController
+@RequestMapping("/tokens")
+@RequiredArgsConstructor
+@Tag(name = "Tokens", description = "Token verification api")
+public class TokenVerificationController {
+
+    private final TokenVerificationService tokenVerificationService;
+
+    @Operation(summary = "Token verification.",
+            description = "This operation enables services to verify a bearer token and read its subject and"
+                    + " permissions using TokenVerificationRequest class in the body.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "OK")
+    })
+    @PostMapping("/verify")
+    public ResponseEntity<TokenVerificationResponse> verify(@RequestBody @Valid TokenVerificationRequest request) {
+        TokenVerificationResponse response = TokenVerificationResponse.from(tokenVerificationService.verify(request.getToken()));
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+
+    @Operation(summary = "Batch token verification.",
+            description = "This operation enables services to verify up to " + TokenBatchVerificationRequest.MAX_TOKENS
+                    + " bearer tokens using TokenBatchVerificationRequest class in the body.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "OK")
+    })
+    @PostMapping("/verify/batch")
+    public ResponseEntity<TokenBatchVerificationResponse> verifyAll(@RequestBody @Valid TokenBatchVerificationRequest request) {
+        TokenBatchVerificationResponse response = TokenBatchVerificationResponse.builder()
+                .results(tokenVerificationService.verifyAll(request.getTokens()).stream()
+                        .map(TokenVerificationResponse::from)
+                        .toList())
+                .build();
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+}
@@ -0,0 +1,72 @@
+package pl.sak.security.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import pl.sak.security.enums.UserRole;
+import pl.sak.security.permission.RequiresPermission;
+import pl.sak.security.model.response.UserPageResponse;
+import pl.sak.security.service.UserAdminService;
+
+import java.time.Duration;
+
+import static pl.sak.security.enums.Permission.USERS_EXPORT;
+import static pl.sak.security.enums.Permission.USERS_LIST;
+
+@RestController
+@RequestMapping("/admin/users")
+@Tag(name = "User administration", description = "User administration api")
+public class UserAdminController {
+
+    private static final String APPLICATION_NDJSON = "application/x-ndjson";
+
+    private final UserAdminService userAdminService;
+    private final long exportTimeoutMillis;
+
+    public UserAdminController(UserAdminService userAdminService,
+                               @Value("${security.admin.users.export-timeout:30m}") Duration exportTimeout) {
+        this.userAdminService = userAdminService;
+        this.exportTimeoutMillis = exportTimeout.toMillis();
+    }
+
+    @Operation(summary = "List users.",
+            description = "This operation enables administrators to page through users ordered by id."
+                    + " Pass nextAfterId from the previous page as afterId to get the next one.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "OK")
+    })
+    @GetMapping
+    @RequiresPermission(USERS_LIST)
+    public ResponseEntity<UserPageResponse> list(@RequestParam(defaultValue = "0") long afterId,
+                                                 @RequestParam(required = false) UserRole role,
+                                                 @RequestParam(defaultValue = "100") int limit) {
+        UserPageResponse response = userAdminService.list(afterId, role, limit);
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+
+    @Operation(summary = "Export users.",
+            description = "This operation enables administrators to export all users as newline-delimited JSON."
+                    + " The export may run for up to security.admin.users.export-timeout.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "OK")
+    })
+    @GetMapping("/export")
+    @RequiresPermission(USERS_EXPORT)
+    public WebAsyncTask<Void> export(@RequestParam(required = false) UserRole role, HttpServletResponse response) {
+        response.setContentType(APPLICATION_NDJSON);
+        return new WebAsyncTask<>(exportTimeoutMillis, () -> {
+            userAdminService.export(role, response.getOutputStream());
+            return null;
+        });
+    }
+}
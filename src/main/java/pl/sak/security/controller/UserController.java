@@ -0,0 +1,43 @@
+package pl.sak.security.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import pl.sak.security.model.request.UserBatchRequest;
+import pl.sak.security.model.response.UserBatchResponse;
+import pl.sak.security.permission.RequiresPermission;
+import pl.sak.security.service.UserService;
+
+import static pl.sak.security.enums.Permission.USERS_LOOKUP;
+
+@RestController
+@RequestMapping("/users")
+@RequiredArgsConstructor
+@Tag(name = "Users", description = "Users api")
+public class UserController {
+
+    private final UserService userService;
+
+    @Operation(summary = "Batch user lookup.",
+            description = "This operation enables services to resolve the public profiles of up to "
+                    + UserBatchRequest.MAX_USERS + " ids and " + UserBatchRequest.MAX_USERS
+                    + " emails using UserBatchRequest class in the body.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "OK")
+    })
+    @PostMapping("/batch")
+    @RequiresPermission(USERS_LOOKUP)
+    public ResponseEntity<UserBatchResponse> findProfiles(@RequestBody @Valid UserBatchRequest request) {
+        UserBatchResponse response = userService.findProfiles(request);
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+}
@@ -0,0 +1,11 @@
+package pl.sak.security.enums;
+
+public enum AuditEventType {
+    REGISTERED,
+    LOGIN_SUCCEEDED,
+    LOGIN_FAILED,
+    LOGIN_REJECTED_LOCKED,
+    ACCOUNT_LOCKED,
+    PASSWORD_CHANGED,
+    PASSWORD_CHANGE_FAILED
+}
@@ -0,0 +1,56 @@
+package pl.sak.security.enums;
+
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Fine-grained permissions granted through {@link UserRole}. Each permission owns a fixed bit of the mask carried
+ * in tokens, so bits must never be reused or renumbered once issued.
+ */
+public enum Permission implements GrantedAuthority {
+    PASSWORD_CHANGE(0),
+    USERS_LOOKUP(1),
+    USERS_LIST(2),
+    USERS_EXPORT(3),
+    LOGGING_CONFIGURE(4);
+
+    private static final Permission[] VALUES = values();
+
+    private final long mask;
+
+    Permission(int bit) {
+        this.mask = 1L << bit;
+    }
+
+    public long mask() {
+        return mask;
+    }
+
+    @Override
+    public String getAuthority() {
+        return name();
+    }
+
+    public static long toMask(Collection<? extends GrantedAuthority> authorities) {
+        long mask = 0;
+        for (GrantedAuthority authority : authorities) {
+            if (authority instanceof Permission permission) {
+                mask |= permission.mask;
+            }
+        }
+        return mask;
+    }
+
+    public static Set<Permission> fromMask(long mask) {
+        EnumSet<Permission> permissions = EnumSet.noneOf(Permission.class);
+        for (Permission permission : VALUES) {
+            if ((mask & permission.mask) != 0) {
+                permissions.add(permission);
+            }
+        }
+        return permissions;
+    }
+}
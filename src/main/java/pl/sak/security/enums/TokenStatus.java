@@ -0,0 +1,7 @@
+package pl.sak.security.enums;
+
+public enum TokenStatus {
+    VALID,
+    INVALID,
+    EXPIRED
+}
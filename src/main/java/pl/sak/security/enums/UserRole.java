@@ -1,6 +1,34 @@
 package pl.sak.security.enums;
 
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import static pl.sak.security.enums.Permission.LOGGING_CONFIGURE;
+import static pl.sak.security.enums.Permission.PASSWORD_CHANGE;
+import static pl.sak.security.enums.Permission.USERS_EXPORT;
+import static pl.sak.security.enums.Permission.USERS_LIST;
+import static pl.sak.security.enums.Permission.USERS_LOOKUP;
+
 public enum UserRole {
-    USER,
-    ADMIN
+    USER(PASSWORD_CHANGE, USERS_LOOKUP),
+    ADMIN(PASSWORD_CHANGE, USERS_LOOKUP, USERS_LIST, USERS_EXPORT, LOGGING_CONFIGURE);
+
+    private final Set<Permission> permissions;
+    private final long permissionMask;
+
+    UserRole(Permission... permissions) {
+        EnumSet<Permission> granted = EnumSet.copyOf(List.of(permissions));
+        this.permissions = Collections.unmodifiableSet(granted);
+        this.permissionMask = Permission.toMask(granted);
+    }
+
+    public Set<Permission> getPermissions() {
+        return permissions;
+    }
+
+    public long getPermissionMask() {
+        return permissionMask;
+    }
 }
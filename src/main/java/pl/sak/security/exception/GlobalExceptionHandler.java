@@ -1,8 +1,12 @@
 package pl.sak.security.exception;
 
 import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.LockedException;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -10,10 +14,13 @@ import pl.sak.security.exception.dto.ValidationErrorDto;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
 
 @ControllerAdvice
 public class GlobalExceptionHandler {
 
+    private static final String BAD_CREDENTIALS = "Bad credentials";
+
     private ResponseEntity<ErrorMessage> createErrorResponse(Exception ex, HttpServletRequest request, HttpStatus status) {
         ErrorMessage errorMessage = ErrorMessage.builder()
                 .timestamp(LocalDateTime.now())
@@ -36,6 +43,32 @@ public class GlobalExceptionHandler {
         return createErrorResponse(ex, request, HttpStatus.BAD_REQUEST);
     }
 
+    /**
+     * A locked account gets the same answer as a wrong password or an unknown email, so the response does not
+     * reveal that the email is registered. The lock is still audited as {@code LOGIN_REJECTED_LOCKED}. A locked
+     * login skips the BCrypt check and so returns faster; that is kept to bound the cost of a lockout flood.
+     */
+    @ExceptionHandler({BadCredentialsException.class, LockedException.class})
+    public ResponseEntity<ErrorMessage> authenticationFailedExceptionHandler(AuthenticationException ex, HttpServletRequest request) {
+        return createErrorResponse(new BadCredentialsException(BAD_CREDENTIALS), request, HttpStatus.UNAUTHORIZED);
+    }
+
+    @ExceptionHandler
+    public ResponseEntity<ErrorMessage> rejectedExecutionExceptionHandler(RejectedExecutionException ex, HttpServletRequest request) {
+        HttpStatus status = HttpStatus.SERVICE_UNAVAILABLE;
+        ErrorMessage errorMessage = ErrorMessage.builder()
+                .timestamp(LocalDateTime.now())
+                .code(status.value())
+                .status(status.getReasonPhrase())
+                .message("Server is overloaded, retry later")
+                .uri(request.getRequestURI())
+                .method(request.getMethod())
+                .build();
+        return ResponseEntity.status(status)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(errorMessage);
+    }
+
     @ExceptionHandler
     public ResponseEntity<List<ValidationErrorDto>> methodArgumentNotValidExceptionHandler(MethodArgumentNotValidException ex) {
         return ResponseEntity.badRequest().body(
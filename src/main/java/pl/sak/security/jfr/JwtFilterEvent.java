@@ -0,0 +1,24 @@
+package pl.sak.security.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+@Name("pl.sak.security.JwtFilter")
+@Label("JWT Filter")
+@Description("Authentication work done by JwtAuthenticationFilter, excluding the rest of the filter chain")
+@Category({"Zuber", "Security"})
+@Threshold("1 ms")
+@StackTrace(false)
+public class JwtFilterEvent extends Event {
+
+    @Label("Outcome")
+    public String outcome;
+
+    @Label("URI")
+    public String uri;
+}
@@ -0,0 +1,24 @@
+package pl.sak.security.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+@Name("pl.sak.security.PasswordHash")
+@Label("Password Hash")
+@Description("Password encoding or matching by the password encoder")
+@Category({"Zuber", "Security"})
+@Threshold("10 ms")
+@StackTrace(false)
+public class PasswordHashEvent extends Event {
+
+    @Label("Operation")
+    public String operation;
+
+    @Label("Matched")
+    public boolean matched;
+}
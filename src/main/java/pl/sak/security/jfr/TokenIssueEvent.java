@@ -0,0 +1,21 @@
+package pl.sak.security.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+@Name("pl.sak.security.TokenIssue")
+@Label("Token Issue")
+@Description("Building and signing a JWT")
+@Category({"Zuber", "Security"})
+@Threshold("1 ms")
+@StackTrace(false)
+public class TokenIssueEvent extends Event {
+
+    @Label("Extra Claims")
+    public int extraClaims;
+}
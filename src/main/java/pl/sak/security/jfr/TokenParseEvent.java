@@ -0,0 +1,21 @@
+package pl.sak.security.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+@Name("pl.sak.security.TokenParse")
+@Label("Token Parse")
+@Description("Verifying the signature of a JWT and decoding its claims")
+@Category({"Zuber", "Security"})
+@Threshold("1 ms")
+@StackTrace(false)
+public class TokenParseEvent extends Event {
+
+    @Label("Outcome")
+    public String outcome;
+}
@@ -0,0 +1,21 @@
+package pl.sak.security.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+@Name("pl.sak.security.TokenValidation")
+@Label("Token Validation")
+@Description("Checking a JWT against the loaded user, including subject and expiry")
+@Category({"Zuber", "Security"})
+@Threshold("1 ms")
+@StackTrace(false)
+public class TokenValidationEvent extends Event {
+
+    @Label("Valid")
+    public boolean valid;
+}
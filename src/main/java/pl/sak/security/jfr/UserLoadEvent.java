@@ -0,0 +1,24 @@
+package pl.sak.security.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+@Name("pl.sak.security.UserLoad")
+@Label("User Load")
+@Description("UserService.loadUserByUsername, from the user cache or the database")
+@Category({"Zuber", "Security"})
+@Threshold("1 ms")
+@StackTrace(false)
+public class UserLoadEvent extends Event {
+
+    @Label("Cache Hit")
+    public boolean cacheHit;
+
+    @Label("Found")
+    public boolean found;
+}
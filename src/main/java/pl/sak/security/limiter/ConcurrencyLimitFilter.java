@@ -0,0 +1,147 @@
+package pl.sak.security.limiter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import pl.sak.security.exception.ErrorMessage;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+/**
+ * Sheds load before any authentication work is done. {@code /auths/**} requests hash passwords and get their
+ * own small budget so a login storm cannot starve token-authenticated traffic, and vice versa. Requests over
+ * the current limit are answered with 503 immediately instead of queueing in Tomcat. Actuator endpoints are
+ * never limited so probes keep working under overload.
+ */
+@Component
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private static final RequestMatcher PASSWORD_ENDPOINTS = new AntPathRequestMatcher("/auths/**");
+    private static final RequestMatcher UNLIMITED_ENDPOINTS = new AntPathRequestMatcher("/actuator/**");
+
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final ConcurrencyLimiter passwordLimiter;
+    private final ConcurrencyLimiter tokenLimiter;
+    private final Counter passwordRejectedCounter;
+    private final Counter tokenRejectedCounter;
+
+    public ConcurrencyLimitFilter(ObjectMapper objectMapper,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${security.limiter.enabled:true}") boolean enabled,
+                                  @Value("${security.limiter.smoothing:0.2}") double smoothing,
+                                  @Value("${security.limiter.backoff-ratio:0.9}") double backoffRatio,
+                                  @Value("${security.limiter.password.initial-limit:8}") int passwordInitialLimit,
+                                  @Value("${security.limiter.password.min-limit:2}") int passwordMinLimit,
+                                  @Value("${security.limiter.password.max-limit:64}") int passwordMaxLimit,
+                                  @Value("${security.limiter.token.initial-limit:50}") int tokenInitialLimit,
+                                  @Value("${security.limiter.token.min-limit:10}") int tokenMinLimit,
+                                  @Value("${security.limiter.token.max-limit:500}") int tokenMaxLimit) {
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.passwordLimiter = new ConcurrencyLimiter("password", passwordInitialLimit, passwordMinLimit,
+                passwordMaxLimit, smoothing, backoffRatio);
+        this.tokenLimiter = new ConcurrencyLimiter("token", tokenInitialLimit, tokenMinLimit,
+                tokenMaxLimit, smoothing, backoffRatio);
+        this.passwordRejectedCounter = registerMeters(meterRegistry, passwordLimiter);
+        this.tokenRejectedCounter = registerMeters(meterRegistry, tokenLimiter);
+    }
+
+    private static Counter registerMeters(MeterRegistry meterRegistry, ConcurrencyLimiter limiter) {
+        Gauge.builder("security.limiter.limit", limiter, ConcurrencyLimiter::getLimit)
+                .tag("budget", limiter.getName())
+                .register(meterRegistry);
+        Gauge.builder("security.limiter.in-flight", limiter, ConcurrencyLimiter::getInFlight)
+                .tag("budget", limiter.getName())
+                .register(meterRegistry);
+        return meterRegistry.counter("security.limiter.rejected", "budget", limiter.getName());
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !enabled || UNLIMITED_ENDPOINTS.matches(request);
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request,
+                                    @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+        boolean passwordEndpoint = PASSWORD_ENDPOINTS.matches(request);
+        ConcurrencyLimiter limiter = passwordEndpoint ? passwordLimiter : tokenLimiter;
+        if (!limiter.tryAcquire()) {
+            (passwordEndpoint ? passwordRejectedCounter : tokenRejectedCounter).increment();
+            reject(request, response);
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (request.isAsyncStarted()) {
+                // The handler returned before the work was done; hold the permit until the response completes
+                request.getAsyncContext().addListener(new ReleaseOnComplete(limiter, start));
+            } else {
+                release(limiter, start, response.getStatus());
+            }
+        }
+    }
+
+    private static void release(ConcurrencyLimiter limiter, long start, int status) {
+        limiter.release(System.nanoTime() - start,
+                status == HttpStatus.SERVICE_UNAVAILABLE.value() || status == HttpStatus.GATEWAY_TIMEOUT.value());
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        HttpStatus status = HttpStatus.SERVICE_UNAVAILABLE;
+        ErrorMessage errorMessage = ErrorMessage.builder()
+                .timestamp(LocalDateTime.now())
+                .code(status.value())
+                .status(status.getReasonPhrase())
+                .message("Server is overloaded, retry later")
+                .uri(request.getRequestURI())
+                .method(request.getMethod())
+                .build();
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), errorMessage);
+    }
+
+    private record ReleaseOnComplete(ConcurrencyLimiter limiter, long start) implements AsyncListener {
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release(limiter, start, ((HttpServletResponse) event.getSuppliedResponse()).getStatus());
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
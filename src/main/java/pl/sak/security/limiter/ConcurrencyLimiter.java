@@ -0,0 +1,108 @@
+package pl.sak.security.limiter;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Vegas-style adaptive concurrency limit for one request budget. The limit grows while the estimated queue
+ * ({@code limit * (1 - noLoadRtt / rtt)}) stays small and shrinks once it builds up, so latency stays close to
+ * the no-load round trip instead of growing with the backlog. The no-load RTT is the smallest observed RTT and
+ * is only allowed to drift upwards on samples taken while the budget was lightly used, since those are the
+ * only ones that did not queue.
+ */
+public class ConcurrencyLimiter {
+
+    private final String name;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double smoothing;
+    private final double backoffRatio;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile int limit;
+    private double estimatedLimit;
+    private long noLoadRttNanos;
+
+    public ConcurrencyLimiter(String name, int initialLimit, int minLimit, int maxLimit, double smoothing, double backoffRatio) {
+        if (minLimit < 1 || minLimit > maxLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Invalid limits for budget " + name);
+        }
+        this.name = name;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.smoothing = smoothing;
+        this.backoffRatio = backoffRatio;
+        this.limit = initialLimit;
+        this.estimatedLimit = initialLimit;
+    }
+
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Releases a permit taken by {@link #tryAcquire()}. A dropped request (timed out or rejected downstream)
+     * backs the limit off multiplicatively regardless of its RTT.
+     */
+    public void release(long rttNanos, boolean dropped) {
+        int inFlightAtCompletion = inFlight.getAndDecrement();
+        onSample(rttNanos, inFlightAtCompletion, dropped);
+    }
+
+    private synchronized void onSample(long rttNanos, int inFlightAtCompletion, boolean dropped) {
+        if (rttNanos <= 0) {
+            return;
+        }
+        if (dropped) {
+            update(estimatedLimit * backoffRatio);
+            return;
+        }
+        boolean applicationLimited = inFlightAtCompletion * 2 < estimatedLimit;
+        if (noLoadRttNanos == 0 || rttNanos < noLoadRttNanos) {
+            noLoadRttNanos = rttNanos;
+            return;
+        }
+        if (applicationLimited) {
+            noLoadRttNanos += (long) ((rttNanos - noLoadRttNanos) * smoothing);
+            return;
+        }
+        double queue = estimatedLimit * (1 - (double) noLoadRttNanos / rttNanos);
+        double log = Math.max(1, Math.log10(estimatedLimit));
+        double alpha = 3 * log;
+        double beta = 6 * log;
+        double target;
+        if (queue <= log) {
+            target = estimatedLimit + beta;
+        } else if (queue < alpha) {
+            target = estimatedLimit + log;
+        } else if (queue > beta) {
+            target = estimatedLimit - log;
+        } else {
+            return;
+        }
+        update(estimatedLimit * (1 - smoothing) + target * smoothing);
+    }
+
+    private void update(double newLimit) {
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+        limit = (int) estimatedLimit;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
@@ -0,0 +1,74 @@
+package pl.sak.security.lockout;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import pl.sak.security.cache.UserInvalidationBus;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Persists account locks to {@code _user.locked_until} in batches, then invalidates the cached users so
+ * every node picks up the lock on its next lookup.
+ */
+@Slf4j
+@Component
+public class AccountLockWriter {
+
+    private static final String UPDATE_SQL = "UPDATE _user SET locked_until = ? WHERE email = ?";
+
+    private final ConcurrentMap<String, Long> pending = new ConcurrentHashMap<>();
+    private final JdbcTemplate jdbcTemplate;
+    private final UserInvalidationBus userInvalidationBus;
+    private final int batchSize;
+
+    public AccountLockWriter(JdbcTemplate jdbcTemplate,
+                             UserInvalidationBus userInvalidationBus,
+                             @Value("${security.lockout.batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.userInvalidationBus = userInvalidationBus;
+        this.batchSize = batchSize;
+    }
+
+    public void lock(String email, long lockedUntil) {
+        pending.merge(email, lockedUntil, Math::max);
+    }
+
+    @Scheduled(fixedDelayString = "${security.lockout.flush-interval-ms:1000}")
+    public synchronized void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<Map.Entry<String, Long>> locks = new ArrayList<>();
+        for (String email : pending.keySet()) {
+            Long lockedUntil = pending.remove(email);
+            if (lockedUntil != null) {
+                locks.add(Map.entry(email, lockedUntil));
+            }
+        }
+        try {
+            jdbcTemplate.batchUpdate(UPDATE_SQL, locks, batchSize, (statement, lock) -> {
+                statement.setTimestamp(1, new Timestamp(lock.getValue()));
+                statement.setString(2, lock.getKey());
+            });
+            locks.forEach(lock -> userInvalidationBus.publishUserChanged(lock.getKey()));
+        } catch (DataAccessException e) {
+            log.warn("Failed to persist {} account locks, keeping them for the next flush", locks.size(), e);
+            locks.forEach(lock -> lock(lock.getKey(), lock.getValue()));
+        }
+    }
+
+    @PreDestroy
+    void drain() {
+        flush();
+    }
+}
@@ -0,0 +1,27 @@
+package pl.sak.security.lockout;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.authentication.AccountStatusUserDetailsChecker;
+import org.springframework.security.authentication.LockedException;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsChecker;
+
+/**
+ * Runs before the password check, so locked accounts are rejected without spending a BCrypt round.
+ */
+@RequiredArgsConstructor
+public class LockoutPreAuthenticationChecks implements UserDetailsChecker {
+
+    private static final String ERROR_MESSAGE = "User account is locked";
+
+    private final LoginAttemptTracker loginAttemptTracker;
+    private final UserDetailsChecker accountStatusChecker = new AccountStatusUserDetailsChecker();
+
+    @Override
+    public void check(UserDetails user) {
+        if (loginAttemptTracker.isLocked(user.getUsername())) {
+            throw new LockedException(ERROR_MESSAGE);
+        }
+        accountStatusChecker.check(user);
+    }
+}
@@ -0,0 +1,124 @@
+package pl.sak.security.lockout;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Counts failed logins per email in memory and locks the account after too many failures within a window.
+ * The lock is enforced from memory straight away and persisted to {@code _user} by the {@link AccountLockWriter}.
+ * <p>
+ * The map is keyed by whatever email the caller sends, so it is capped at {@code security.lockout.max-tracked}
+ * entries and sheds one entry per new email beyond that, the way {@link pl.sak.security.cache.UserCache} does.
+ */
+@Component
+public class LoginAttemptTracker {
+
+    private static final int EVICTION_SAMPLE = 8;
+
+    private final ConcurrentMap<String, Attempts> attempts = new ConcurrentHashMap<>();
+    private final AccountLockWriter accountLockWriter;
+    private final int maxAttempts;
+    private final long windowMillis;
+    private final long lockMillis;
+    private final int maxTracked;
+    private final Counter lockedCounter;
+
+    public LoginAttemptTracker(AccountLockWriter accountLockWriter,
+                               MeterRegistry meterRegistry,
+                               @Value("${security.lockout.max-attempts:5}") int maxAttempts,
+                               @Value("${security.lockout.window:15m}") Duration window,
+                               @Value("${security.lockout.lock-duration:15m}") Duration lockDuration,
+                               @Value("${security.lockout.max-tracked:100000}") int maxTracked) {
+        this.accountLockWriter = accountLockWriter;
+        this.maxAttempts = maxAttempts;
+        this.windowMillis = window.toMillis();
+        this.lockMillis = lockDuration.toMillis();
+        this.maxTracked = maxTracked;
+        this.lockedCounter = meterRegistry.counter("security.lockout.locked");
+        meterRegistry.gauge("security.lockout.tracked", attempts, Map::size);
+    }
+
+    public boolean isLocked(String email) {
+        Attempts current = attempts.get(email);
+        return current != null && current.lockedUntil() > System.currentTimeMillis();
+    }
+
+    /**
+     * @return {@code true} if this failure locked the account
+     */
+    public boolean recordFailure(String email) {
+        long now = System.currentTimeMillis();
+        if (attempts.size() >= maxTracked && !attempts.containsKey(email)) {
+            evictOne(now);
+        }
+        Attempts updated = attempts.compute(email, (key, current) -> {
+            if (current == null || current.isExpired(now, windowMillis)) {
+                return new Attempts(1, now, maxAttempts == 1 ? now + lockMillis : 0);
+            }
+            int failures = current.failures() + 1;
+            long lockedUntil = failures == maxAttempts ? now + lockMillis : current.lockedUntil();
+            return new Attempts(failures, current.windowStart(), lockedUntil);
+        });
+        if (updated.failures() == maxAttempts) {
+            lockedCounter.increment();
+            accountLockWriter.lock(email, updated.lockedUntil());
+            return true;
+        }
+        return false;
+    }
+
+    public void recordSuccess(String email) {
+        attempts.remove(email);
+    }
+
+    @Scheduled(fixedDelayString = "${security.lockout.purge-interval-ms:60000}")
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        attempts.values().removeIf(current -> current.isExpired(now, windowMillis));
+    }
+
+    /**
+     * Drops the oldest of the first few entries the map iterates over, passing over entries that still hold a
+     * lock when the sample has any other. An evicted lock is still enforced from {@code _user} once written.
+     */
+    private void evictOne(long now) {
+        Iterator<Map.Entry<String, Attempts>> iterator = attempts.entrySet().iterator();
+        Map.Entry<String, Attempts> victim = null;
+        for (int i = 0; i < EVICTION_SAMPLE && iterator.hasNext(); i++) {
+            Map.Entry<String, Attempts> candidate = iterator.next();
+            if (victim == null || candidate.getValue().evictsBefore(victim.getValue(), now)) {
+                victim = candidate;
+            }
+        }
+        if (victim != null) {
+            attempts.remove(victim.getKey(), victim.getValue());
+        }
+    }
+
+    private record Attempts(int failures, long windowStart, long lockedUntil) {
+
+        boolean isExpired(long now, long windowMillis) {
+            if (lockedUntil != 0) {
+                return lockedUntil <= now;
+            }
+            return now - windowStart > windowMillis;
+        }
+
+        boolean evictsBefore(Attempts other, long now) {
+            boolean locked = lockedUntil > now;
+            if (locked != other.lockedUntil > now) {
+                return !locked;
+            }
+            return windowStart < other.windowStart;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package pl.sak.security.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.filter.Filter;
+import ch.qos.logback.core.spi.FilterReply;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Samples and rate-limits high-volume log categories on the calling thread, before an event is queued.
+ * A category covers a logger and its descendants; each event is kept with probability {@code sampleRate} and
+ * at most {@code maxPerSecond} kept events pass per second. WARN and above always pass, as do loggers outside
+ * every category. Attached to the async appender in {@code logback-spring.xml}: a turbo filter would not do,
+ * because events built with the SLF4J fluent API ({@code atInfo()...log()}) bypass turbo filters.
+ */
+public class CategorySamplingFilter extends Filter<ILoggingEvent> {
+
+    private final List<Category> categories = new ArrayList<>();
+    private final Map<String, Category> categoryByLogger = new ConcurrentHashMap<>();
+
+    public void addCategory(Category category) {
+        categories.add(category);
+    }
+
+    public List<Category> getCategories() {
+        return categories;
+    }
+
+    @Override
+    public FilterReply decide(ILoggingEvent event) {
+        if (event.getLevel().isGreaterOrEqual(Level.WARN)) {
+            return FilterReply.NEUTRAL;
+        }
+        Category category = categoryByLogger.computeIfAbsent(event.getLoggerName(), this::categoryOf);
+        if (category == Category.NONE) {
+            return FilterReply.NEUTRAL;
+        }
+        return category.tryAcquire() ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+
+    private Category categoryOf(String loggerName) {
+        Category match = Category.NONE;
+        for (Category category : categories) {
+            String prefix = category.getLogger();
+            boolean covers = loggerName.equals(prefix)
+                    || loggerName.startsWith(prefix) && loggerName.charAt(prefix.length()) == '.';
+            if (covers && prefix.length() > match.getLogger().length()) {
+                match = category;
+            }
+        }
+        return match;
+    }
+
+    public static class Category {
+
+        private static final Category NONE = new Category();
+
+        private String logger = "";
+        private double sampleRate = 1.0;
+        private int maxPerSecond = Integer.MAX_VALUE;
+        private final AtomicLong window = new AtomicLong();
+        private final AtomicLong keptInWindow = new AtomicLong();
+        private final LongAdder dropped = new LongAdder();
+
+        boolean tryAcquire() {
+            if (sampleRate < 1.0 && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+                dropped.increment();
+                return false;
+            }
+            long second = System.nanoTime() / 1_000_000_000L;
+            long current = window.get();
+            if (second != current && window.compareAndSet(current, second)) {
+                keptInWindow.set(0);
+            }
+            if (keptInWindow.incrementAndGet() > maxPerSecond) {
+                dropped.increment();
+                return false;
+            }
+            return true;
+        }
+
+        public String getLogger() {
+            return logger;
+        }
+
+        public void setLogger(String logger) {
+            this.logger = logger;
+        }
+
+        public double getSampleRate() {
+            return sampleRate;
+        }
+
+        public void setSampleRate(double sampleRate) {
+            this.sampleRate = sampleRate;
+        }
+
+        public int getMaxPerSecond() {
+            return maxPerSecond;
+        }
+
+        public void setMaxPerSecond(int maxPerSecond) {
+            this.maxPerSecond = maxPerSecond;
+        }
+
+        public long getDropped() {
+            return dropped.sum();
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package pl.sak.security.logging;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.filter.Filter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.ILoggerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Publishes how many events {@link CategorySamplingFilter} dropped per category and how full the async
+ * appenders' queues are, so sampled-away and shed log lines are visible. Filters and appenders are looked up by
+ * name on every read, because reinitialising logging (a refresh, or another application context in the same JVM)
+ * replaces them with new instances.
+ */
+@Component
+public class LoggingMetrics implements MeterBinder {
+
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        ILoggerFactory loggerFactory = LoggerFactory.getILoggerFactory();
+        if (!(loggerFactory instanceof LoggerContext context)) {
+            return;
+        }
+        for (Appender<ILoggingEvent> appender : appenders(context)) {
+            for (CategorySamplingFilter.Category category : categories(appender)) {
+                String logger = category.getLogger();
+                FunctionCounter.builder("security.logging.dropped", context, current -> dropped(current, logger))
+                        .tag("category", logger)
+                        .register(registry);
+            }
+            if (appender instanceof AsyncAppender async) {
+                String name = async.getName();
+                Gauge.builder("security.logging.queued", context, current -> queued(current, name))
+                        .tag("appender", name)
+                        .register(registry);
+            }
+        }
+    }
+
+    private static double dropped(LoggerContext context, String logger) {
+        long dropped = 0;
+        for (Appender<ILoggingEvent> appender : appenders(context)) {
+            for (CategorySamplingFilter.Category category : categories(appender)) {
+                if (category.getLogger().equals(logger)) {
+                    dropped += category.getDropped();
+                }
+            }
+        }
+        return dropped;
+    }
+
+    private static double queued(LoggerContext context, String name) {
+        return context.getLogger(Logger.ROOT_LOGGER_NAME).getAppender(name) instanceof AsyncAppender async
+                ? async.getNumberOfElementsInQueue()
+                : 0;
+    }
+
+    private static List<Appender<ILoggingEvent>> appenders(LoggerContext context) {
+        List<Appender<ILoggingEvent>> appenders = new ArrayList<>();
+        Iterator<Appender<ILoggingEvent>> iterator = context.getLogger(Logger.ROOT_LOGGER_NAME).iteratorForAppenders();
+        iterator.forEachRemaining(appenders::add);
+        return appenders;
+    }
+
+    private static List<CategorySamplingFilter.Category> categories(Appender<ILoggingEvent> appender) {
+        List<CategorySamplingFilter.Category> categories = new ArrayList<>();
+        for (Filter<ILoggingEvent> filter : appender.getCopyOfAttachedFiltersList()) {
+            if (filter instanceof CategorySamplingFilter sampling) {
+                categories.addAll(sampling.getCategories());
+            }
+        }
+        return categories;
+    }
+}
@@ -0,0 +1,45 @@
+package pl.sak.security.logging;
+
+import org.slf4j.MDC;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Map;
+
+/**
+ * Carries the MDC of the scheduling thread over to tasks run on Reactor schedulers, so log lines written while
+ * the reactive web mode hashes a password keep the request's trace id.
+ */
+@Component
+public class MdcPropagation implements DisposableBean {
+
+    private final String hookKey = MdcPropagation.class.getName() + "@" + System.identityHashCode(this);
+
+    public MdcPropagation() {
+        Schedulers.onScheduleHook(hookKey, task -> {
+            Map<String, String> context = MDC.getCopyOfContextMap();
+            if (context == null) {
+                return task;
+            }
+            return () -> {
+                Map<String, String> previous = MDC.getCopyOfContextMap();
+                MDC.setContextMap(context);
+                try {
+                    task.run();
+                } finally {
+                    if (previous == null) {
+                        MDC.clear();
+                    } else {
+                        MDC.setContextMap(previous);
+                    }
+                }
+            };
+        });
+    }
+
+    @Override
+    public void destroy() {
+        Schedulers.resetOnScheduleHook(hookKey);
+    }
+}
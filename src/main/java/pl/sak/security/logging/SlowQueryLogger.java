@@ -0,0 +1,65 @@
+package pl.sak.security.logging;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Logs every statement slower than {@code security.logging.slow-sql.threshold-ms} to the {@code security.sql.slow}
+ * category, which is rate-limited in {@code logback-spring.xml}. It sits on the {@link DataSource} rather than in
+ * Hibernate, so the {@code JdbcTemplate} lookups on the hot paths are timed as well as the JPA ones. Only the
+ * statement text is logged, never the bound parameters, which carry emails and password hashes.
+ */
+@Component
+public class SlowQueryLogger implements BeanPostProcessor, QueryExecutionListener {
+
+    private static final Logger SLOW_QUERIES = LoggerFactory.getLogger("security.sql.slow");
+
+    private final long thresholdMillis;
+
+    public SlowQueryLogger(@Value("${security.logging.slow-sql.threshold-ms:200}") long thresholdMillis) {
+        this.thresholdMillis = thresholdMillis;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(@NonNull Object bean, @NonNull String beanName) {
+        if (bean instanceof DataSource dataSource) {
+            return ProxyDataSourceBuilder.create(dataSource)
+                    .name(beanName)
+                    .listener(this)
+                    .build();
+        }
+        return bean;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        long elapsed = execInfo.getElapsedTime();
+        if (elapsed < thresholdMillis) {
+            return;
+        }
+        String sql = queryInfoList.stream()
+                .map(queryInfo -> queryInfo.getQuery().trim())
+                .collect(Collectors.joining("; "));
+        SLOW_QUERIES.atInfo()
+                .addKeyValue("elapsedMs", elapsed)
+                .addKeyValue("batchSize", execInfo.getBatchSize())
+                .addKeyValue("success", execInfo.isSuccess())
+                .log("Slow query took {} ms: {}", elapsed, sql);
+    }
+}
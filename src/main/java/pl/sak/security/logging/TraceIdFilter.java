@@ -0,0 +1,78 @@
+package pl.sak.security.logging;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.MDC;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.HexFormat;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Pattern;
+
+/**
+ * Puts {@code traceId} and {@code spanId} into the MDC for the whole request, async dispatches included, so
+ * every log line can be correlated with the caller. The trace id is taken from a W3C {@code traceparent} header
+ * when the caller sent one and generated otherwise; the span id is always new. The trace id is echoed in
+ * {@value #TRACE_ID_HEADER}.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class TraceIdFilter extends OncePerRequestFilter {
+
+    public static final String TRACE_ID = "traceId";
+    public static final String SPAN_ID = "spanId";
+    public static final String TRACE_ID_HEADER = "X-Trace-Id";
+    private static final String TRACEPARENT_HEADER = "traceparent";
+    private static final Pattern TRACEPARENT = Pattern.compile("[0-9a-f]{2}-[0-9a-f]{32}-[0-9a-f]{16}-[0-9a-f]{2}");
+    private static final String INVALID_TRACE_ID = "00000000000000000000000000000000";
+    private static final String TRACE_ATTRIBUTE = TraceIdFilter.class.getName() + ".TRACE";
+    private static final HexFormat HEX = HexFormat.of();
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request,
+                                    @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+        String[] trace = (String[]) request.getAttribute(TRACE_ATTRIBUTE);
+        if (trace == null) {
+            trace = new String[]{traceId(request.getHeader(TRACEPARENT_HEADER)), randomHex(8)};
+            request.setAttribute(TRACE_ATTRIBUTE, trace);
+            response.setHeader(TRACE_ID_HEADER, trace[0]);
+        }
+        MDC.put(TRACE_ID, trace[0]);
+        MDC.put(SPAN_ID, trace[1]);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            MDC.remove(TRACE_ID);
+            MDC.remove(SPAN_ID);
+        }
+    }
+
+    private static String traceId(String traceparent) {
+        if (traceparent != null && TRACEPARENT.matcher(traceparent).matches()) {
+            String traceId = traceparent.substring(3, 35);
+            if (!traceId.equals(INVALID_TRACE_ID)) {
+                return traceId;
+            }
+        }
+        return randomHex(16);
+    }
+
+    private static String randomHex(int bytes) {
+        byte[] random = new byte[bytes];
+        ThreadLocalRandom.current().nextBytes(random);
+        return HEX.formatHex(random);
+    }
+}
@@ -0,0 +1,28 @@
+package pl.sak.security.migration;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.liquibase.LiquibaseAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * One-shot migration command: {@code java -jar security.jar migrate}. Boots only a datasource and Liquibase
+ * with the {@code migrate} profile, applies the changelog and exits, so service nodes can start with
+ * Liquibase disabled. Deliberately not a {@code @Configuration} to stay out of the service's component scan.
+ */
+@ImportAutoConfiguration({DataSourceAutoConfiguration.class, LiquibaseAutoConfiguration.class})
+public class DatabaseMigration {
+
+    public static final String COMMAND = "migrate";
+
+    public static void main(String[] args) {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(DatabaseMigration.class)
+                .web(WebApplicationType.NONE)
+                .profiles(COMMAND)
+                .run(args);
+        System.exit(SpringApplication.exit(context));
+    }
+}
@@ -0,0 +1,17 @@
+package pl.sak.security.model;
+
+import pl.sak.security.enums.TokenStatus;
+
+/**
+ * Outcome of verifying a bearer token without loading the user. Email, permissions and expiry are only set
+ * for valid tokens.
+ */
+public record TokenVerification(TokenStatus status, String email, long permissions, long expiresAt) {
+
+    public static final TokenVerification INVALID = new TokenVerification(TokenStatus.INVALID, null, 0, 0);
+    public static final TokenVerification EXPIRED = new TokenVerification(TokenStatus.EXPIRED, null, 0, 0);
+
+    public static TokenVerification valid(String email, long permissions, long expiresAt) {
+        return new TokenVerification(TokenStatus.VALID, email, permissions, expiresAt);
+    }
+}
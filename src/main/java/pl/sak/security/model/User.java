@@ -1,5 +1,6 @@
 package pl.sak.security.model;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
@@ -13,12 +14,11 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import pl.sak.security.enums.UserRole;
 
+import java.time.LocalDateTime;
 import java.util.Collection;
-import java.util.List;
 
 import static jakarta.persistence.EnumType.STRING;
 
@@ -41,11 +41,17 @@ public class User implements UserDetails {
     private String password;
     @Enumerated(STRING)
     private UserRole userRole;
+    @Column(insertable = false, updatable = false)
+    private LocalDateTime lastLoginAt;
+    @Column(insertable = false, updatable = false)
+    private Long loginCount;
+    @Column(insertable = false, updatable = false)
+    private LocalDateTime lockedUntil;
 
 
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
-        return List.of(new SimpleGrantedAuthority(userRole.name()));
+        return userRole.getPermissions();
     }
 
     @Override
@@ -65,7 +71,7 @@ public class User implements UserDetails {
 
     @Override
     public boolean isAccountNonLocked() {
-        return true;
+        return lockedUntil == null || lockedUntil.isBefore(LocalDateTime.now());
     }
 
     @Override
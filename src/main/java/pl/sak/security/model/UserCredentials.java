@@ -0,0 +1,54 @@
+package pl.sak.security.model;
+
+import lombok.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+import pl.sak.security.enums.UserRole;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+/**
+ * Immutable read-only view of a {@link User} holding only what authentication needs. Mapped straight from a
+ * {@code _user} row by {@code UserCredentialsRepositoryImpl}'s {@code JdbcTemplate} query, so it never enters a
+ * persistence context and Hibernate neither manages it nor keeps a dirty-checking snapshot.
+ */
+@Value
+public class UserCredentials implements UserDetails {
+
+    Long id;
+    String email;
+    String password;
+    UserRole userRole;
+    LocalDateTime lockedUntil;
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return userRole.getPermissions();
+    }
+
+    @Override
+    public String getUsername() {
+        return email;
+    }
+
+    @Override
+    public boolean isAccountNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isAccountNonLocked() {
+        return lockedUntil == null || lockedUntil.isBefore(LocalDateTime.now());
+    }
+
+    @Override
+    public boolean isCredentialsNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+}
@@ -6,6 +6,7 @@ import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import pl.sak.security.validates.NotBreached;
 
 @AllArgsConstructor
 @NoArgsConstructor
@@ -16,6 +17,7 @@ public class ChangePasswordRequest {
 
     @NotBlank(message = "CURRENT_PASSWORD_NOT_BLANK")
     private String currentPassword;
+    @NotBreached(message = "NEW_PASSWORD_BREACHED")
     @NotBlank(message = "NEW_PASSWORD_NOT_BLANK")
     private String newPassword;
     @NotBlank(message = "CONFIRMATION_PASSWORD_NOT_BLANK")
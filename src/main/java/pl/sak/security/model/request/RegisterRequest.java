@@ -7,6 +7,7 @@ import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import pl.sak.security.validates.NotBreached;
 import pl.sak.security.validates.UniqueEmail;
 
 @AllArgsConstructor
@@ -24,6 +25,7 @@ public class RegisterRequest {
     @Email(message = "INCORRECT_EMAIL_FORMAT")
     @NotBlank(message = "EMAIL_NOT_BLANK")
     private String email;
+    @NotBreached(message = "PASSWORD_BREACHED")
     @NotBlank(message = "PASSWORD_NOT_BLANK")
     private String password;
 }
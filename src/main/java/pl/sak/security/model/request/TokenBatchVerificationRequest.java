@@ -0,0 +1,25 @@
+package pl.sak.security.model.request;
+
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Getter
+@Setter
+public class TokenBatchVerificationRequest {
+
+    public static final int MAX_TOKENS = 500;
+
+    @Builder.Default
+    @Size(max = MAX_TOKENS, message = "TOKENS_SIZE_EXCEEDED")
+    private List<String> tokens = new ArrayList<>();
+}
@@ -0,0 +1,19 @@
+package pl.sak.security.model.request;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Getter
+@Setter
+public class TokenVerificationRequest {
+
+    @NotBlank(message = "TOKEN_NOT_BLANK")
+    private String token;
+}
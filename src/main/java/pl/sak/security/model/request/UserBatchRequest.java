@@ -0,0 +1,28 @@
+package pl.sak.security.model.request;
+
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Getter
+@Setter
+public class UserBatchRequest {
+
+    public static final int MAX_USERS = 500;
+
+    @Builder.Default
+    @Size(max = MAX_USERS, message = "IDS_SIZE_EXCEEDED")
+    private List<Long> ids = new ArrayList<>();
+    @Builder.Default
+    @Size(max = MAX_USERS, message = "EMAILS_SIZE_EXCEEDED")
+    private List<String> emails = new ArrayList<>();
+}
@@ -0,0 +1,19 @@
+package pl.sak.security.model.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Getter
+@Setter
+public class TokenBatchVerificationResponse {
+
+    private List<TokenVerificationResponse> results;
+}
@@ -0,0 +1,32 @@
+package pl.sak.security.model.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import pl.sak.security.enums.TokenStatus;
+import pl.sak.security.model.TokenVerification;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Getter
+@Setter
+public class TokenVerificationResponse {
+
+    private TokenStatus status;
+    private String email;
+    private Long permissions;
+    private Long expiresAt;
+
+    public static TokenVerificationResponse from(TokenVerification verification) {
+        boolean valid = verification.status() == TokenStatus.VALID;
+        return TokenVerificationResponse.builder()
+                .status(verification.status())
+                .email(verification.email())
+                .permissions(valid ? verification.permissions() : null)
+                .expiresAt(valid ? verification.expiresAt() : null)
+                .build();
+    }
+}
@@ -0,0 +1,22 @@
+package pl.sak.security.model.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import pl.sak.security.enums.UserRole;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Getter
+@Setter
+public class UserProfileResponse {
+
+    private Long id;
+    private String email;
+    private String name;
+    private String surname;
+    private UserRole userRole;
+}
@@ -0,0 +1,27 @@
+package pl.sak.security.model.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import pl.sak.security.enums.UserRole;
+
+import java.time.LocalDateTime;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Getter
+@Setter
+public class UserResponse {
+
+    private Long id;
+    private String name;
+    private String surname;
+    private String email;
+    private UserRole userRole;
+    private LocalDateTime lastLoginAt;
+    private Long loginCount;
+    private LocalDateTime lockedUntil;
+}
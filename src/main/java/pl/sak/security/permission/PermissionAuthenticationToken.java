@@ -0,0 +1,48 @@
+package pl.sak.security.permission;
+
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.userdetails.UserDetails;
+import pl.sak.security.enums.Permission;
+
+import java.util.Collection;
+import java.util.Collections;
+
+/**
+ * Authentication built from a token's permission mask. Authorities are exposed as an {@code EnumSet} view,
+ * and the raw mask is kept so {@link PermissionAuthorizationManager} can check it without iterating.
+ */
+public class PermissionAuthenticationToken extends AbstractAuthenticationToken {
+
+    private final UserDetails principal;
+    private final long permissionMask;
+    private final Collection<GrantedAuthority> permissions;
+
+    public PermissionAuthenticationToken(UserDetails principal, long permissionMask) {
+        super(AuthorityUtils.NO_AUTHORITIES);
+        this.principal = principal;
+        this.permissionMask = permissionMask;
+        this.permissions = Collections.<GrantedAuthority>unmodifiableSet(Permission.fromMask(permissionMask));
+        setAuthenticated(true);
+    }
+
+    public long getPermissionMask() {
+        return permissionMask;
+    }
+
+    @Override
+    public Collection<GrantedAuthority> getAuthorities() {
+        return permissions;
+    }
+
+    @Override
+    public Object getCredentials() {
+        return null;
+    }
+
+    @Override
+    public UserDetails getPrincipal() {
+        return principal;
+    }
+}
@@ -0,0 +1,62 @@
+package pl.sak.security.permission;
+
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.core.Authentication;
+import pl.sak.security.enums.Permission;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Evaluates {@link RequiresPermission} as a single mask comparison. The required mask is resolved once per
+ * method; the granted mask comes straight from {@link PermissionAuthenticationToken}, other authentications
+ * fall back to folding their {@link Permission} authorities.
+ */
+public class PermissionAuthorizationManager implements AuthorizationManager<MethodInvocation> {
+
+    private static final AuthorizationDecision GRANTED = new AuthorizationDecision(true);
+    private static final AuthorizationDecision DENIED = new AuthorizationDecision(false);
+
+    private final Map<Method, Long> requiredMasks = new ConcurrentHashMap<>();
+
+    @Override
+    public AuthorizationDecision check(Supplier<Authentication> authentication, MethodInvocation invocation) {
+        long required = requiredMasks.computeIfAbsent(invocation.getMethod(),
+                method -> requiredMask(method, invocation.getThis()));
+        Authentication current = authentication.get();
+        if (current == null || !current.isAuthenticated()) {
+            return DENIED;
+        }
+        return (grantedMask(current) & required) == required ? GRANTED : DENIED;
+    }
+
+    static long grantedMask(Authentication authentication) {
+        if (authentication instanceof PermissionAuthenticationToken token) {
+            return token.getPermissionMask();
+        }
+        return Permission.toMask(authentication.getAuthorities());
+    }
+
+    private static long requiredMask(Method method, Object target) {
+        RequiresPermission annotation = AnnotatedElementUtils.findMergedAnnotation(method, RequiresPermission.class);
+        if (annotation == null && target != null) {
+            annotation = AnnotatedElementUtils.findMergedAnnotation(target.getClass(), RequiresPermission.class);
+        }
+        if (annotation == null) {
+            annotation = AnnotatedElementUtils.findMergedAnnotation(method.getDeclaringClass(), RequiresPermission.class);
+        }
+        if (annotation == null) {
+            throw new IllegalStateException("No @RequiresPermission on " + method);
+        }
+        long mask = 0;
+        for (Permission permission : annotation.value()) {
+            mask |= permission.mask();
+        }
+        return mask;
+    }
+}
@@ -0,0 +1,21 @@
+package pl.sak.security.permission;
+
+import pl.sak.security.enums.Permission;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Requires the authenticated user to hold all listed permissions. A method-level annotation overrides the
+ * class-level one.
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface RequiresPermission {
+
+    Permission[] value();
+}
@@ -0,0 +1,12 @@
+package pl.sak.security.repository;
+
+import pl.sak.security.model.UserCredentials;
+
+import java.util.Optional;
+
+public interface UserCredentialsRepository {
+
+    Optional<UserCredentials> findCredentialsByEmail(String email);
+
+    boolean existsByEmail(String email);
+}
@@ -0,0 +1,43 @@
+package pl.sak.security.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import pl.sak.security.enums.UserRole;
+import pl.sak.security.model.UserCredentials;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Looks credentials up with plain JDBC. Authentication never writes through what it reads, so there is no
+ * point in paying for a transaction, a persistence context or an entity snapshot on every request. Each lookup
+ * is a single auto-commit statement, so it holds a pooled connection for one round trip only.
+ */
+@RequiredArgsConstructor
+class UserCredentialsRepositoryImpl implements UserCredentialsRepository {
+
+    private static final String SELECT_SQL =
+            "SELECT id, email, password, user_role, locked_until FROM _user WHERE email = ?";
+    private static final String EXISTS_SQL = "SELECT EXISTS (SELECT 1 FROM _user WHERE email = ?)";
+    private static final RowMapper<UserCredentials> ROW_MAPPER = (rs, rowNum) -> new UserCredentials(
+            rs.getLong("id"),
+            rs.getString("email"),
+            rs.getString("password"),
+            UserRole.valueOf(rs.getString("user_role")),
+            rs.getObject("locked_until", LocalDateTime.class));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public Optional<UserCredentials> findCredentialsByEmail(String email) {
+        List<UserCredentials> credentials = jdbcTemplate.query(SELECT_SQL, ROW_MAPPER, email);
+        return credentials.isEmpty() ? Optional.empty() : Optional.of(credentials.get(0));
+    }
+
+    @Override
+    public boolean existsByEmail(String email) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(EXISTS_SQL, Boolean.class, email));
+    }
+}
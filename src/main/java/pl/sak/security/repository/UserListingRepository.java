@@ -0,0 +1,16 @@
+package pl.sak.security.repository;
+
+import pl.sak.security.enums.UserRole;
+import pl.sak.security.model.response.UserResponse;
+
+import java.util.List;
+
+public interface UserListingRepository {
+
+    /**
+     * Returns at most {@code limit} users with id greater than {@code afterId}, ordered by id, optionally
+     * restricted to one role. Each call is a single bounded query, so callers can walk the whole table
+     * without a long-running transaction.
+     */
+    List<UserResponse> findPageAfter(long afterId, UserRole role, int limit);
+}
@@ -0,0 +1,43 @@
+package pl.sak.security.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import pl.sak.security.enums.UserRole;
+import pl.sak.security.model.response.UserResponse;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Keyset pages over {@code _user} ordered by id. The table is hash-partitioned on email, so a page cannot be
+ * pruned: Postgres merges the per-partition primary key scans and stops once {@code limit} rows are out.
+ */
+@RequiredArgsConstructor
+class UserListingRepositoryImpl implements UserListingRepository {
+
+    private static final String SELECT_SQL =
+            "SELECT id, name, surname, email, user_role, last_login_at, login_count, locked_until FROM _user ";
+    private static final String PAGE_SQL = SELECT_SQL + "WHERE id > ? ORDER BY id LIMIT ?";
+    private static final String ROLE_PAGE_SQL = SELECT_SQL + "WHERE id > ? AND user_role = ? ORDER BY id LIMIT ?";
+    private static final RowMapper<UserResponse> ROW_MAPPER = (rs, rowNum) -> UserResponse.builder()
+            .id(rs.getLong("id"))
+            .name(rs.getString("name"))
+            .surname(rs.getString("surname"))
+            .email(rs.getString("email"))
+            .userRole(UserRole.valueOf(rs.getString("user_role")))
+            .lastLoginAt(rs.getObject("last_login_at", LocalDateTime.class))
+            .loginCount(rs.getLong("login_count"))
+            .lockedUntil(rs.getObject("locked_until", LocalDateTime.class))
+            .build();
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public List<UserResponse> findPageAfter(long afterId, UserRole role, int limit) {
+        if (role == null) {
+            return jdbcTemplate.query(PAGE_SQL, ROW_MAPPER, afterId, limit);
+        }
+        return jdbcTemplate.query(ROLE_PAGE_SQL, ROW_MAPPER, afterId, role.name(), limit);
+    }
+}
@@ -0,0 +1,14 @@
+package pl.sak.security.repository;
+
+import pl.sak.security.model.response.UserProfileResponse;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface UserProfileRepository {
+
+    /**
+     * Loads the profiles of all users matching any of the ids or emails with a single query.
+     */
+    List<UserProfileResponse> findProfiles(Collection<Long> ids, Collection<String> emails);
+}
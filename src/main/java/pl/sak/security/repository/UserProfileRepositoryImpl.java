@@ -0,0 +1,41 @@
+package pl.sak.security.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import pl.sak.security.enums.UserRole;
+import pl.sak.security.model.response.UserProfileResponse;
+
+import java.sql.PreparedStatement;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Loads profiles for a batch of ids and emails in one statement. Emails prune to their partitions of the
+ * email-hashed {@code _user} table, but ids cannot, so every id is probed in every partition.
+ */
+@RequiredArgsConstructor
+class UserProfileRepositoryImpl implements UserProfileRepository {
+
+    private static final String SELECT_SQL =
+            "SELECT id, email, name, surname, user_role FROM _user WHERE id = ANY (?) OR email = ANY (?)";
+    private static final RowMapper<UserProfileResponse> ROW_MAPPER = (rs, rowNum) -> UserProfileResponse.builder()
+            .id(rs.getLong("id"))
+            .email(rs.getString("email"))
+            .name(rs.getString("name"))
+            .surname(rs.getString("surname"))
+            .userRole(UserRole.valueOf(rs.getString("user_role")))
+            .build();
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public List<UserProfileResponse> findProfiles(Collection<Long> ids, Collection<String> emails) {
+        return jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(SELECT_SQL);
+            statement.setArray(1, connection.createArrayOf("bigint", ids.toArray()));
+            statement.setArray(2, connection.createArrayOf("varchar", emails.toArray()));
+            return statement;
+        }, ROW_MAPPER);
+    }
+}
@@ -1,13 +1,23 @@
 package pl.sak.security.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import pl.sak.security.model.User;
 
 import java.util.Optional;
 
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, UserCredentialsRepository, UserListingRepository,
+        UserProfileRepository {
 
     Optional<User> findByEmail(String email);
 
-    boolean existsByEmail(String email);
+    /**
+     * Updates by email rather than through a managed entity, whose flush would update by id and could not be
+     * pruned to a single partition of the email-hashed {@code _user} table.
+     */
+    @Modifying
+    @Query("update User u set u.password = :password where u.email = :email")
+    int updatePasswordByEmail(@Param("email") String email, @Param("password") String password);
 }
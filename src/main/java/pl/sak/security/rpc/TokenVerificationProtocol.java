@@ -0,0 +1,99 @@
+package pl.sak.security.rpc;
+
+import pl.sak.security.model.TokenVerification;
+import pl.sak.security.model.request.TokenBatchVerificationRequest;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Wire format of the binary token verification protocol. Integers are big endian and every frame starts with
+ * its length, not counting the length field itself.
+ * <pre>
+ * request:  int length, int requestId, byte opcode, short count, count x (short tokenLength, ASCII token)
+ * response: int length, int requestId, byte opcode, short count, count x (byte status, long permissions,
+ *           long expiresAt, short emailLength, UTF-8 email)
+ * </pre>
+ * {@link #VERIFY} carries exactly one token and {@link #BATCH_VERIFY} up to {@link #MAX_TOKENS}. Every result has
+ * the same flat layout; status is the {@link pl.sak.security.enums.TokenStatus} ordinal. Clients may pipeline
+ * any number of requests on one connection; responses come back in request order and echo the request id.
+ */
+public final class TokenVerificationProtocol {
+
+    public static final byte VERIFY = 1;
+    public static final byte BATCH_VERIFY = 2;
+    public static final int MAX_TOKENS = TokenBatchVerificationRequest.MAX_TOKENS;
+    public static final int MAX_TOKEN_LENGTH = 8192;
+    public static final int MAX_VERIFY_LENGTH = 7 + 2 + MAX_TOKEN_LENGTH;
+    public static final int MAX_REQUEST_LENGTH = 7 + MAX_TOKENS * (2 + MAX_TOKEN_LENGTH);
+    static final int HEADER_LENGTH = 7;
+    private static final int RESULT_FIXED_LENGTH = 19;
+
+    private TokenVerificationProtocol() {
+    }
+
+    /**
+     * Longest frame the opcode may carry, or {@code -1} for an unknown opcode.
+     */
+    static int maxFrameLength(byte opcode) {
+        return opcode == VERIFY ? MAX_VERIFY_LENGTH : opcode == BATCH_VERIFY ? MAX_REQUEST_LENGTH : -1;
+    }
+
+    /**
+     * Reads the tokens of a request whose length field has already been consumed, or returns {@code null}
+     * when the frame is malformed.
+     */
+    static List<String> decodeTokens(ByteBuffer frame, byte opcode) {
+        if (frame.remaining() < 2) {
+            return null;
+        }
+        int count = frame.getShort() & 0xFFFF;
+        if (opcode == VERIFY ? count != 1 : opcode != BATCH_VERIFY || count > MAX_TOKENS) {
+            return null;
+        }
+        List<String> tokens = new ArrayList<>(count);
+        byte[] scratch = new byte[256];
+        for (int i = 0; i < count; i++) {
+            if (frame.remaining() < 2) {
+                return null;
+            }
+            int length = frame.getShort() & 0xFFFF;
+            if (length > MAX_TOKEN_LENGTH || frame.remaining() < length) {
+                return null;
+            }
+            if (scratch.length < length) {
+                scratch = new byte[length];
+            }
+            frame.get(scratch, 0, length);
+            tokens.add(new String(scratch, 0, length, StandardCharsets.ISO_8859_1));
+        }
+        return frame.hasRemaining() ? null : tokens;
+    }
+
+    static int responseLength(List<byte[]> emails) {
+        int length = HEADER_LENGTH;
+        for (byte[] email : emails) {
+            length += RESULT_FIXED_LENGTH + email.length;
+        }
+        return length;
+    }
+
+    static void encodeResponse(ByteBuffer out, int requestId, byte opcode, List<TokenVerification> results,
+                               List<byte[]> emails) {
+        out.putInt(responseLength(emails));
+        out.putInt(requestId);
+        out.put(opcode);
+        out.putShort((short) results.size());
+        for (int i = 0; i < results.size(); i++) {
+            TokenVerification result = results.get(i);
+            byte[] email = emails.get(i);
+            out.put((byte) result.status().ordinal());
+            out.putLong(result.permissions());
+            out.putLong(result.expiresAt());
+            out.putShort((short) email.length);
+            out.put(email);
+        }
+    }
+}
@@ -0,0 +1,361 @@
+package pl.sak.security.rpc;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import pl.sak.security.enums.TokenStatus;
+import pl.sak.security.model.TokenVerification;
+import pl.sak.security.service.TokenVerificationService;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Serves {@link TokenVerificationProtocol} on a dedicated port for services inside the mesh, skipping HTTP
+ * parsing, JSON and the servlet filter chain. Connections are persistent and spread over a few selector
+ * threads; each thread decodes, verifies and answers the frames of its connections without handing off, as a
+ * JWT check is a short CPU-bound HMAC. A connection whose peer stops reading is not read from until its pending
+ * responses drain. At most {@code security.rpc.max-connections} connections are kept, connections idle for
+ * {@code security.rpc.idle-timeout} are closed, and a frame is rejected as soon as its header claims more than its
+ * opcode allows, before any buffer grows for it.
+ * <p>
+ * The port carries no authentication of its own and must only be reachable from inside the mesh, so the server
+ * is off unless {@code security.rpc.enabled} is set and binds to loopback unless {@code security.rpc.bind-address}
+ * names a mesh-facing interface.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "security.rpc.enabled", havingValue = "true")
+public class TokenVerificationServer implements SmartLifecycle {
+
+    private static final int MAX_PENDING_OUTPUT = 1 << 22;
+    private static final int FRAME_PREFIX_LENGTH = 9;
+    private static final long IDLE_CHECK_MILLIS = 1000;
+    private static final byte[] NO_EMAIL = new byte[0];
+
+    private final TokenVerificationService tokenVerificationService;
+    private final String bindAddress;
+    private final int requestedPort;
+    private final int maxConnections;
+    private final long idleTimeoutMillis;
+    private final EventLoop[] eventLoops;
+    private final Map<TokenStatus, Counter> verifications = new EnumMap<>(TokenStatus.class);
+    private final AtomicInteger connections = new AtomicInteger();
+    private final Counter rejectedConnections;
+    private final Counter idleConnections;
+    private ServerSocketChannel serverChannel;
+    private Thread acceptor;
+    private volatile boolean running;
+
+    public TokenVerificationServer(TokenVerificationService tokenVerificationService,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${security.rpc.bind-address:127.0.0.1}") String bindAddress,
+                                   @Value("${security.rpc.port:9190}") int port,
+                                   @Value("${security.rpc.io-threads:0}") int ioThreads,
+                                   @Value("${security.rpc.max-connections:1024}") int maxConnections,
+                                   @Value("${security.rpc.idle-timeout:60s}") Duration idleTimeout) {
+        this.tokenVerificationService = tokenVerificationService;
+        this.bindAddress = bindAddress;
+        this.requestedPort = port;
+        this.maxConnections = maxConnections;
+        this.idleTimeoutMillis = idleTimeout.toMillis();
+        this.eventLoops = new EventLoop[ioThreads > 0 ? ioThreads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2)];
+        for (TokenStatus status : TokenStatus.values()) {
+            verifications.put(status, Counter.builder("security.rpc.verifications")
+                    .tag("status", status.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+        meterRegistry.gauge("security.rpc.connections", connections);
+        rejectedConnections = Counter.builder("security.rpc.closed").tag("reason", "max_connections").register(meterRegistry);
+        idleConnections = Counter.builder("security.rpc.closed").tag("reason", "idle").register(meterRegistry);
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        try {
+            serverChannel = ServerSocketChannel.open();
+            serverChannel.bind(new InetSocketAddress(bindAddress, requestedPort));
+            for (int i = 0; i < eventLoops.length; i++) {
+                eventLoops[i] = new EventLoop(Selector.open());
+                Thread thread = new Thread(eventLoops[i], "token-rpc-io-" + i);
+                thread.setDaemon(true);
+                thread.start();
+            }
+        } catch (IOException e) {
+            running = false;
+            throw new UncheckedIOException("Could not start token verification server", e);
+        }
+        acceptor = new Thread(this::accept, "token-rpc-accept");
+        acceptor.setDaemon(true);
+        acceptor.start();
+        log.info("Token verification server listening on {}:{} with {} io threads", bindAddress, getPort(),
+                eventLoops.length);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        try {
+            serverChannel.close();
+        } catch (IOException e) {
+            log.warn("Could not close token verification server socket", e);
+        }
+        for (EventLoop eventLoop : eventLoops) {
+            eventLoop.selector.wakeup();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    public int getPort() {
+        return serverChannel.socket().getLocalPort();
+    }
+
+    private void accept() {
+        int next = 0;
+        while (running) {
+            SocketChannel channel;
+            try {
+                channel = serverChannel.accept();
+            } catch (ClosedChannelException e) {
+                return;
+            } catch (IOException e) {
+                log.warn("Could not accept token verification connection", e);
+                continue;
+            }
+            if (connections.incrementAndGet() > maxConnections) {
+                rejectedConnections.increment();
+                closeUnregistered(channel);
+                continue;
+            }
+            try {
+                channel.configureBlocking(false);
+                channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                eventLoops[next++ % eventLoops.length].register(channel);
+            } catch (IOException e) {
+                log.warn("Could not set up token verification connection", e);
+                closeUnregistered(channel);
+            }
+        }
+    }
+
+    private void closeUnregistered(SocketChannel channel) {
+        connections.decrementAndGet();
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+            // already closing
+        }
+    }
+
+    private final class EventLoop implements Runnable {
+
+        private final Selector selector;
+        private final Queue<SocketChannel> pending = new ConcurrentLinkedQueue<>();
+
+        private EventLoop(Selector selector) {
+            this.selector = selector;
+        }
+
+        void register(SocketChannel channel) {
+            pending.add(channel);
+            selector.wakeup();
+        }
+
+        @Override
+        public void run() {
+            long lastIdleCheck = System.currentTimeMillis();
+            while (running) {
+                try {
+                    selector.select(IDLE_CHECK_MILLIS);
+                    SocketChannel channel;
+                    while ((channel = pending.poll()) != null) {
+                        try {
+                            channel.register(selector, SelectionKey.OP_READ, new Connection(channel));
+                        } catch (ClosedChannelException e) {
+                            closeUnregistered(channel);
+                        }
+                    }
+                    for (SelectionKey key : selector.selectedKeys()) {
+                        Connection connection = (Connection) key.attachment();
+                        try {
+                            if (key.isValid() && key.isWritable()) {
+                                connection.flush(key);
+                            }
+                            if (key.isValid() && key.isReadable()) {
+                                connection.read(key);
+                            }
+                        } catch (IOException e) {
+                            connection.close(key);
+                        } catch (RuntimeException e) {
+                            log.warn("Token verification request failed, closing connection", e);
+                            connection.close(key);
+                        }
+                    }
+                    selector.selectedKeys().clear();
+                    long now = System.currentTimeMillis();
+                    if (now - lastIdleCheck >= IDLE_CHECK_MILLIS) {
+                        closeIdle(now);
+                        lastIdleCheck = now;
+                    }
+                } catch (IOException e) {
+                    log.warn("Token verification event loop failed", e);
+                }
+            }
+            for (SelectionKey key : selector.keys()) {
+                ((Connection) key.attachment()).close(key);
+            }
+            try {
+                selector.close();
+            } catch (IOException e) {
+                log.warn("Could not close token verification selector", e);
+            }
+        }
+
+        private void closeIdle(long now) {
+            for (SelectionKey key : selector.keys()) {
+                Connection connection = (Connection) key.attachment();
+                if (key.isValid() && now - connection.lastActivity > idleTimeoutMillis) {
+                    idleConnections.increment();
+                    connection.close(key);
+                }
+            }
+        }
+    }
+
+    private final class Connection {
+
+        private final SocketChannel channel;
+        private ByteBuffer input = ByteBuffer.allocate(8192);
+        private ByteBuffer output = ByteBuffer.allocate(8192);
+        private long lastActivity = System.currentTimeMillis();
+
+        private Connection(SocketChannel channel) {
+            this.channel = channel;
+        }
+
+        void read(SelectionKey key) throws IOException {
+            if (channel.read(input) < 0) {
+                close(key);
+                return;
+            }
+            lastActivity = System.currentTimeMillis();
+            process(key);
+        }
+
+        void flush(SelectionKey key) throws IOException {
+            output.flip();
+            if (channel.write(output) > 0) {
+                lastActivity = System.currentTimeMillis();
+            }
+            output.compact();
+            if (output.position() == 0) {
+                key.interestOps(SelectionKey.OP_READ);
+                process(key);
+            }
+        }
+
+        void close(SelectionKey key) {
+            if (!channel.isOpen()) {
+                return;
+            }
+            key.cancel();
+            try {
+                channel.close();
+            } catch (IOException ignored) {
+                // already closing
+            }
+            connections.decrementAndGet();
+        }
+
+        /**
+         * Answers every complete frame in the input buffer, then writes as much of the output as the socket
+         * accepts.
+         */
+        private void process(SelectionKey key) throws IOException {
+            input.flip();
+            while (input.remaining() >= 4 && output.position() < MAX_PENDING_OUTPUT) {
+                int length = input.getInt(input.position());
+                if (length < TokenVerificationProtocol.HEADER_LENGTH || length > TokenVerificationProtocol.MAX_REQUEST_LENGTH) {
+                    throw new IOException("Invalid frame length " + length);
+                }
+                if (input.remaining() >= FRAME_PREFIX_LENGTH
+                        && length > TokenVerificationProtocol.maxFrameLength(input.get(input.position() + 8))) {
+                    throw new IOException("Frame length " + length + " exceeds the limit of its opcode");
+                }
+                if (input.remaining() < 4 + length) {
+                    break;
+                }
+                int frameEnd = input.position() + 4 + length;
+                ByteBuffer frame = input.slice(input.position() + 4, length);
+                input.position(frameEnd);
+                handle(frame);
+            }
+            // the opcode limit is checked above once the first 9 bytes are in, so only grow after that
+            int needed = input.remaining() >= FRAME_PREFIX_LENGTH ? 4 + input.getInt(input.position()) : 0;
+            input.compact();
+            if (needed > input.capacity() && needed <= 4 + TokenVerificationProtocol.MAX_REQUEST_LENGTH) {
+                input = grow(input, needed);
+            }
+
+            output.flip();
+            channel.write(output);
+            output.compact();
+            key.interestOps(output.position() == 0 ? SelectionKey.OP_READ
+                    : output.position() < MAX_PENDING_OUTPUT ? SelectionKey.OP_READ | SelectionKey.OP_WRITE
+                    : SelectionKey.OP_WRITE);
+        }
+
+        private void handle(ByteBuffer frame) throws IOException {
+            int requestId = frame.getInt();
+            byte opcode = frame.get();
+            List<String> tokens = TokenVerificationProtocol.decodeTokens(frame, opcode);
+            if (tokens == null) {
+                throw new IOException("Malformed token verification request " + requestId);
+            }
+            List<TokenVerification> results = tokenVerificationService.verifyAll(tokens);
+            List<byte[]> emails = new ArrayList<>(results.size());
+            for (TokenVerification result : results) {
+                verifications.get(result.status()).increment();
+                emails.add(result.email() != null ? result.email().getBytes(StandardCharsets.UTF_8) : NO_EMAIL);
+            }
+            int length = 4 + TokenVerificationProtocol.responseLength(emails);
+            if (output.remaining() < length) {
+                output = grow(output, output.position() + length);
+            }
+            TokenVerificationProtocol.encodeResponse(output, requestId, opcode, results, emails);
+        }
+
+        private static ByteBuffer grow(ByteBuffer buffer, int minimum) {
+            ByteBuffer grown = ByteBuffer.allocate(Math.max(minimum, buffer.capacity() * 2));
+            buffer.flip();
+            grown.put(buffer);
+            return grown;
+        }
+    }
+}
@@ -1,21 +1,40 @@
 package pl.sak.security.service;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.LockedException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import pl.sak.security.audit.AuditLog;
+import pl.sak.security.cache.UserInvalidationBus;
 import pl.sak.security.exception.InvalidPasswordException;
 import pl.sak.security.exception.UserEmailNotFoundException;
+import pl.sak.security.lockout.LoginAttemptTracker;
 import pl.sak.security.model.User;
+import pl.sak.security.model.UserCredentials;
 import pl.sak.security.model.request.AuthenticationRequest;
 import pl.sak.security.model.request.ChangePasswordRequest;
 import pl.sak.security.model.request.RegisterRequest;
 import pl.sak.security.model.response.AuthenticationResponse;
 import pl.sak.security.model.response.ChangePasswordResponse;
 import pl.sak.security.repository.UserRepository;
+import pl.sak.security.session.OpaqueTokenService;
+import pl.sak.security.session.Session;
+import pl.sak.security.statistics.LoginStatisticsAggregator;
 
+import static pl.sak.security.enums.AuditEventType.ACCOUNT_LOCKED;
+import static pl.sak.security.enums.AuditEventType.LOGIN_FAILED;
+import static pl.sak.security.enums.AuditEventType.LOGIN_REJECTED_LOCKED;
+import static pl.sak.security.enums.AuditEventType.LOGIN_SUCCEEDED;
+import static pl.sak.security.enums.AuditEventType.PASSWORD_CHANGED;
+import static pl.sak.security.enums.AuditEventType.PASSWORD_CHANGE_FAILED;
+import static pl.sak.security.enums.AuditEventType.REGISTERED;
 import static pl.sak.security.enums.UserRole.USER;
 
 @Service
@@ -26,6 +45,11 @@ public class AuthenticationService {
     private final PasswordEncoder passwordEncoder;
     private final JwtTokenService jwtTokenService;
     private final AuthenticationManager authenticationManager;
+    private final UserInvalidationBus userInvalidationBus;
+    private final LoginStatisticsAggregator loginStatisticsAggregator;
+    private final LoginAttemptTracker loginAttemptTracker;
+    private final AuditLog auditLog;
+    private final ObjectProvider<OpaqueTokenService> opaqueTokenService;
 
     @Transactional
     public AuthenticationResponse register(RegisterRequest request) {
@@ -37,7 +61,8 @@ public class AuthenticationService {
                 .userRole(USER)
                 .build();
         userRepository.save(user);
-        var jwtToken = jwtTokenService.generateToken(user);
+        auditLog.publishAfterCommit(REGISTERED, user.getEmail());
+        var jwtToken = issueToken(user);
 
         return AuthenticationResponse.builder()
                 .token(jwtToken)
@@ -45,10 +70,24 @@ public class AuthenticationService {
     }
 
     public AuthenticationResponse authenticate(AuthenticationRequest request) {
-        authenticationManager.authenticate(new UsernamePasswordAuthenticationToken(request.getEmail(), request.getPassword()));
-        var user = userRepository.findByEmail(request.getEmail())
-                .orElseThrow(() -> new UserEmailNotFoundException(request.getEmail()));
-        var jwtToken = jwtTokenService.generateToken(user);
+        Authentication authentication;
+        try {
+            authentication = authenticationManager.authenticate(new UsernamePasswordAuthenticationToken(request.getEmail(), request.getPassword()));
+        } catch (LockedException e) {
+            auditLog.publish(LOGIN_REJECTED_LOCKED, request.getEmail());
+            throw e;
+        } catch (BadCredentialsException e) {
+            auditLog.publish(LOGIN_FAILED, request.getEmail());
+            if (loginAttemptTracker.recordFailure(request.getEmail())) {
+                auditLog.publish(ACCOUNT_LOCKED, request.getEmail());
+            }
+            throw e;
+        }
+        loginAttemptTracker.recordSuccess(request.getEmail());
+        auditLog.publish(LOGIN_SUCCEEDED, request.getEmail());
+        var user = (UserDetails) authentication.getPrincipal();
+        loginStatisticsAggregator.recordLogin(user.getUsername());
+        var jwtToken = issueToken(user);
 
         return AuthenticationResponse.builder()
                 .token(jwtToken)
@@ -57,13 +96,13 @@ public class AuthenticationService {
 
     @Transactional
     public ChangePasswordResponse changePassword(ChangePasswordRequest request, String authorization) {
-        String credentials = authorization.substring("Bearer ".length()).trim();
-        String email = jwtTokenService.extractUsername(credentials);
+        String email = tokenEmail(bearerToken(authorization));
 
-        User user = userRepository.findByEmail(email)
+        UserCredentials user = userRepository.findCredentialsByEmail(email)
                 .orElseThrow(() -> new UserEmailNotFoundException(email));
 
         if (!passwordEncoder.matches(request.getCurrentPassword(), user.getPassword())) {
+            auditLog.publish(PASSWORD_CHANGE_FAILED, email);
             throw new InvalidPasswordException("Wrong password!");
         }
 
@@ -71,10 +110,40 @@ public class AuthenticationService {
             throw new InvalidPasswordException("Password are not the same!");
         }
 
-        user.setPassword(passwordEncoder.encode(request.getNewPassword()));
-        userRepository.save(user);
+        userRepository.updatePasswordByEmail(email, passwordEncoder.encode(request.getNewPassword()));
+        userInvalidationBus.publishUserChanged(email);
+        opaqueTokenService.ifAvailable(opaqueTokens -> opaqueTokens.revokeUser(user.getId()));
+        auditLog.publishAfterCommit(PASSWORD_CHANGED, email);
         return ChangePasswordResponse.builder()
                 .message("Password changed successfully.")
                 .build();
     }
+
+    public void logout(String authorization) {
+        String token = bearerToken(authorization);
+        opaqueTokenService.ifAvailable(opaqueTokens -> {
+            if (OpaqueTokenService.isOpaqueToken(token)) {
+                opaqueTokens.revoke(token);
+            }
+        });
+    }
+
+    private String issueToken(UserDetails user) {
+        OpaqueTokenService opaqueTokens = opaqueTokenService.getIfAvailable();
+        return opaqueTokens != null ? opaqueTokens.issue(user) : jwtTokenService.generateToken(user);
+    }
+
+    private String tokenEmail(String token) {
+        OpaqueTokenService opaqueTokens = opaqueTokenService.getIfAvailable();
+        if (opaqueTokens != null && OpaqueTokenService.isOpaqueToken(token)) {
+            return opaqueTokens.resolve(token)
+                    .map(Session::email)
+                    .orElseThrow(() -> new BadCredentialsException("Invalid token"));
+        }
+        return jwtTokenService.extractUsername(token);
+    }
+
+    private static String bearerToken(String authorization) {
+        return authorization.substring("Bearer ".length()).trim();
+    }
 }
@@ -1,6 +1,9 @@
 package pl.sak.security.service;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
@@ -8,6 +11,11 @@ import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
+import pl.sak.security.jfr.TokenIssueEvent;
+import pl.sak.security.jfr.TokenParseEvent;
+import pl.sak.security.enums.Permission;
+import pl.sak.security.jfr.TokenValidationEvent;
+import pl.sak.security.model.TokenVerification;
 
 import java.security.Key;
 import java.util.Date;
@@ -18,14 +26,25 @@ import java.util.function.Function;
 @Service
 public class JwtTokenService {
 
+    public static final String PERMISSIONS_CLAIM = "prm";
+
     @Value("${jwt.secret}")
     private String secretKey;
     private long accessTokenValidity = 1000 * 60 * 24;
+    private volatile JwtParser parser;
 
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
     }
 
+    /**
+     * Parses and verifies the token once, so callers can read the subject, expiry and permissions from one
+     * {@link Claims} instead of re-verifying the signature for each of them.
+     */
+    public Claims parseClaims(String token) {
+        return extractAllClaims(token);
+    }
+
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
         final Claims claims = extractAllClaims(token);
         return claimsResolver.apply(claims);
@@ -36,34 +55,93 @@ public class JwtTokenService {
     }
 
     public String generateToken(Map<String, Object> extraClaims, UserDetails userDetails) {
-        return Jwts.builder()
+        TokenIssueEvent event = new TokenIssueEvent();
+        event.begin();
+        String token = Jwts.builder()
                 .setClaims(extraClaims)
+                .claim(PERMISSIONS_CLAIM, Permission.toMask(userDetails.getAuthorities()))
                 .setSubject(userDetails.getUsername())
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + accessTokenValidity))
                 .signWith(getSignInKey(), SignatureAlgorithm.HS256)
                 .compact();
+        event.extraClaims = extraClaims.size();
+        event.commit();
+        return token;
+    }
+
+    /**
+     * Returns the permission mask carried by the token, or {@code null} for tokens issued before permissions
+     * were added to the claims.
+     */
+    public Long extractPermissions(String token) {
+        return extractPermissions(extractAllClaims(token));
+    }
+
+    public Long extractPermissions(Claims claims) {
+        return claims.get(PERMISSIONS_CLAIM, Long.class);
+    }
+
+    /**
+     * Checks signature and expiry with a single parse and no user lookup, for services that delegate token
+     * verification to this one.
+     */
+    public TokenVerification verify(String token) {
+        try {
+            Claims claims = extractAllClaims(token);
+            Long permissions = claims.get(PERMISSIONS_CLAIM, Long.class);
+            return TokenVerification.valid(claims.getSubject(), permissions != null ? permissions : 0,
+                    claims.getExpiration().getTime());
+        } catch (ExpiredJwtException e) {
+            return TokenVerification.EXPIRED;
+        } catch (JwtException | IllegalArgumentException e) {
+            return TokenVerification.INVALID;
+        }
     }
 
     public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
+        return isTokenValid(extractAllClaims(token), userDetails);
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    public boolean isTokenValid(Claims claims, UserDetails userDetails) {
+        TokenValidationEvent event = new TokenValidationEvent();
+        event.begin();
+        boolean valid = claims.getSubject().equals(userDetails.getUsername()) && !isTokenExpired(claims);
+        event.valid = valid;
+        event.commit();
+        return valid;
     }
 
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    private boolean isTokenExpired(Claims claims) {
+        return claims.getExpiration().before(new Date());
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSignInKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        TokenParseEvent event = new TokenParseEvent();
+        event.begin();
+        try {
+            Claims claims = parser()
+                    .parseClaimsJws(token)
+                    .getBody();
+            event.outcome = "parsed";
+            return claims;
+        } catch (JwtException e) {
+            event.outcome = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            event.commit();
+        }
+    }
+
+    private JwtParser parser() {
+        JwtParser jwtParser = parser;
+        if (jwtParser == null) {
+            jwtParser = Jwts.parserBuilder()
+                    .setSigningKey(getSignInKey())
+                    .build();
+            parser = jwtParser;
+        }
+        return jwtParser;
     }
 
     private Key getSignInKey() {
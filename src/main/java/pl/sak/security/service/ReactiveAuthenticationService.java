@@ -0,0 +1,58 @@
+package pl.sak.security.service;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import pl.sak.security.model.request.AuthenticationRequest;
+import pl.sak.security.model.request.ChangePasswordRequest;
+import pl.sak.security.model.request.RegisterRequest;
+import pl.sak.security.model.response.AuthenticationResponse;
+import pl.sak.security.model.response.ChangePasswordResponse;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Non-blocking facade over {@link AuthenticationService} for {@code security.web.mode=reactive}. Every
+ * operation that hashes a password runs on a bounded scheduler, so the request thread is handed back to Tomcat
+ * while BCrypt runs and hashing never uses more than {@code security.reactive.password-threads} cores. Work
+ * beyond {@code security.reactive.password-queue} queued operations fails with a
+ * {@link java.util.concurrent.RejectedExecutionException} instead of waiting.
+ */
+@Service
+@ConditionalOnProperty(name = "security.web.mode", havingValue = "reactive")
+public class ReactiveAuthenticationService implements DisposableBean {
+
+    private final AuthenticationService authenticationService;
+    private final Scheduler passwordScheduler;
+
+    public ReactiveAuthenticationService(AuthenticationService authenticationService,
+                                         @Value("${security.reactive.password-threads:0}") int passwordThreads,
+                                         @Value("${security.reactive.password-queue:1024}") int passwordQueue) {
+        this.authenticationService = authenticationService;
+        this.passwordScheduler = Schedulers.newBoundedElastic(
+                passwordThreads > 0 ? passwordThreads : Runtime.getRuntime().availableProcessors(),
+                passwordQueue, "password-hash", 60, true);
+    }
+
+    public Mono<AuthenticationResponse> register(RegisterRequest request) {
+        return Mono.fromCallable(() -> authenticationService.register(request))
+                .subscribeOn(passwordScheduler);
+    }
+
+    public Mono<AuthenticationResponse> authenticate(AuthenticationRequest request) {
+        return Mono.fromCallable(() -> authenticationService.authenticate(request))
+                .subscribeOn(passwordScheduler);
+    }
+
+    public Mono<ChangePasswordResponse> changePassword(ChangePasswordRequest request, String authorization) {
+        return Mono.fromCallable(() -> authenticationService.changePassword(request, authorization))
+                .subscribeOn(passwordScheduler);
+    }
+
+    @Override
+    public void destroy() {
+        passwordScheduler.dispose();
+    }
+}
@@ -0,0 +1,44 @@
+package pl.sak.security.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Service;
+import pl.sak.security.model.TokenVerification;
+import pl.sak.security.session.OpaqueTokenService;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Verifies bearer tokens on behalf of other services, for both the REST endpoint and the binary protocol.
+ * Opaque tokens are resolved in the session store, JWTs by signature and expiry alone.
+ */
+@Service
+@RequiredArgsConstructor
+public class TokenVerificationService {
+
+    private final JwtTokenService jwtTokenService;
+    private final ObjectProvider<OpaqueTokenService> opaqueTokenService;
+
+    public TokenVerification verify(String token) {
+        if (token == null || token.isEmpty()) {
+            return TokenVerification.INVALID;
+        }
+        OpaqueTokenService opaqueTokens = opaqueTokenService.getIfAvailable();
+        if (opaqueTokens != null && OpaqueTokenService.isOpaqueToken(token)) {
+            return opaqueTokens.resolve(token)
+                    .map(session -> TokenVerification.valid(session.email(), session.userRole().getPermissionMask(),
+                            session.expiresAt()))
+                    .orElse(TokenVerification.INVALID);
+        }
+        return jwtTokenService.verify(token);
+    }
+
+    public List<TokenVerification> verifyAll(List<String> tokens) {
+        List<TokenVerification> verifications = new ArrayList<>(tokens.size());
+        for (String token : tokens) {
+            verifications.add(verify(token));
+        }
+        return verifications;
+    }
+}
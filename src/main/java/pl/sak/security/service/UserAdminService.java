@@ -0,0 +1,67 @@
+package pl.sak.security.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import pl.sak.security.enums.UserRole;
+import pl.sak.security.model.response.UserPageResponse;
+import pl.sak.security.model.response.UserResponse;
+import pl.sak.security.repository.UserRepository;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+@Service
+public class UserAdminService {
+
+    private final UserRepository userRepository;
+    private final ObjectMapper objectMapper;
+    private final int maxPageSize;
+    private final int exportChunkSize;
+
+    public UserAdminService(UserRepository userRepository,
+                            ObjectMapper objectMapper,
+                            @Value("${security.admin.users.max-page-size:1000}") int maxPageSize,
+                            @Value("${security.admin.users.export-chunk-size:1000}") int exportChunkSize) {
+        this.userRepository = userRepository;
+        this.objectMapper = objectMapper;
+        this.maxPageSize = maxPageSize;
+        this.exportChunkSize = exportChunkSize;
+    }
+
+    public UserPageResponse list(long afterId, UserRole role, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, maxPageSize));
+        List<UserResponse> users = userRepository.findPageAfter(afterId, role, pageSize);
+        Long nextAfterId = users.size() == pageSize ? users.get(users.size() - 1).getId() : null;
+        return UserPageResponse.builder()
+                .users(users)
+                .nextAfterId(nextAfterId)
+                .build();
+    }
+
+    /**
+     * Writes every matching user as one JSON object per line. The table is walked in keyset chunks, each read
+     * by its own short query and flushed before the next is fetched, so heap usage stays at one chunk and no
+     * transaction spans the export.
+     */
+    public void export(UserRole role, OutputStream outputStream) throws IOException {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+            generator.setRootValueSeparator(null);
+            long afterId = 0;
+            List<UserResponse> chunk;
+            do {
+                chunk = userRepository.findPageAfter(afterId, role, exportChunkSize);
+                for (UserResponse user : chunk) {
+                    objectMapper.writeValue(generator, user);
+                    generator.writeRaw('\n');
+                }
+                generator.flush();
+                if (!chunk.isEmpty()) {
+                    afterId = chunk.get(chunk.size() - 1).getId();
+                }
+            } while (chunk.size() == exportChunkSize);
+        }
+    }
+}
@@ -4,22 +4,53 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.stereotype.Service;
+import pl.sak.security.cache.UserCache;
 import pl.sak.security.exception.UserEmailNotFoundException;
+import pl.sak.security.jfr.UserLoadEvent;
+import pl.sak.security.model.request.UserBatchRequest;
+import pl.sak.security.model.response.UserBatchResponse;
 import pl.sak.security.repository.UserRepository;
 
+import java.util.List;
+import java.util.Optional;
+
 @Service
 @RequiredArgsConstructor
 public class UserService implements UserDetailsService {
 
     private final UserRepository userRepository;
+    private final UserCache userCache;
 
     @Override
     public UserDetails loadUserByUsername(String email) throws UserEmailNotFoundException {
-        return userRepository.findByEmail(email)
-                .orElseThrow(() -> new UserEmailNotFoundException(email));
+        UserLoadEvent event = new UserLoadEvent();
+        event.begin();
+        try {
+            Optional<UserDetails> cached = userCache.get(email);
+            event.cacheHit = cached.isPresent();
+            UserDetails user = cached.orElseGet(() -> {
+                long stamp = userCache.stamp();
+                UserDetails loaded = userRepository.findCredentialsByEmail(email)
+                        .orElseThrow(() -> new UserEmailNotFoundException(email));
+                userCache.put(email, loaded, stamp);
+                return loaded;
+            });
+            event.found = true;
+            return user;
+        } finally {
+            event.commit();
+        }
     }
 
     public boolean extractUsername(String email) {
         return userRepository.existsByEmail(email);
     }
+
+    public UserBatchResponse findProfiles(UserBatchRequest request) {
+        List<Long> ids = request.getIds() == null ? List.of() : request.getIds();
+        List<String> emails = request.getEmails() == null ? List.of() : request.getEmails();
+        return UserBatchResponse.builder()
+                .users(ids.isEmpty() && emails.isEmpty() ? List.of() : userRepository.findProfiles(ids, emails))
+                .build();
+    }
 }
@@ -0,0 +1,374 @@
+package pl.sak.security.session;
+
+import pl.sak.security.enums.UserRole;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileAttribute;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Open-addressing hash table of sessions kept in a memory-mapped file, so records live outside the Java heap
+ * and survive a restart. Keys are the two halves of a 128-bit hash of the token, never the token itself, and the
+ * file is readable by its owner only. Collisions are resolved by linear probing with backward-shift deletion,
+ * which keeps probe chains short without tombstones.
+ * <p>
+ * Revoking every session of a user records a horizon instead of searching the table: the user's sessions expiring
+ * at or before it are rejected at once and reclaimed by {@link #sweep} later. Horizons are written to a small
+ * area after the slots, so they survive a restart along with the sessions they cover, and are indexed on the heap
+ * for lookups. When that area is full the user's sessions are deleted straight away instead.
+ * <p>
+ * Reads are lock-free optimistic reads validated against a {@link StampedLock}; writes are serialized.
+ * <p>
+ * Slot layout (little endian): key hash hi, key hash lo, expires-at millis, user id (8 bytes each), state, role ordinal
+ * (1 byte each), email length (2 bytes), email UTF-8 bytes. Revocation layout: user id, horizon millis (8 bytes
+ * each), where a zero horizon marks a free entry.
+ */
+public class MappedSessionStore implements Closeable {
+
+    static final int SLOT_SIZE = 320;
+    static final int MAX_EMAIL_BYTES = SLOT_SIZE - 36;
+    static final int DEFAULT_REVOCATION_CAPACITY = 4096;
+    private static final int HEADER_SIZE = 64;
+    private static final int REVOCATION_SIZE = 16;
+    private static final int MAGIC = 0x5345_5353;
+    private static final int VERSION = 3;
+    private static final int SIZE_OFFSET = 12;
+    private static final int REVOCATION_CAPACITY_OFFSET = 16;
+    private static final byte EMPTY = 0;
+    private static final byte USED = 1;
+    private static final UserRole[] ROLES = UserRole.values();
+    private static final Set<PosixFilePermission> OWNER_ONLY = EnumSet.of(
+            PosixFilePermission.OWNER_READ, PosixFilePermission.OWNER_WRITE);
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int capacity;
+    private final int mask;
+    private final int maxSize;
+    private final int revocationCapacity;
+    private final int revocationsOffset;
+    private final Map<Long, Long> revokedBefore = new ConcurrentHashMap<>();
+    private final StampedLock lock = new StampedLock();
+    private final byte[] scratch = new byte[SLOT_SIZE];
+    private int size;
+
+    public MappedSessionStore(Path file, int requestedCapacity) throws IOException {
+        this(file, requestedCapacity, DEFAULT_REVOCATION_CAPACITY);
+    }
+
+    public MappedSessionStore(Path file, int requestedCapacity, int revocationCapacity) throws IOException {
+        this.capacity = Integer.highestOneBit(Math.max(2, requestedCapacity - 1)) << 1;
+        this.mask = capacity - 1;
+        this.maxSize = capacity / 4 * 3;
+        this.revocationCapacity = revocationCapacity;
+        long revocationsOffset = HEADER_SIZE + (long) capacity * SLOT_SIZE;
+        long length = revocationsOffset + (long) revocationCapacity * REVOCATION_SIZE;
+        if (length > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Session store capacity too large: " + requestedCapacity);
+        }
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        this.channel = open(file);
+        boolean reusable = channel.size() == length;
+        if (!reusable) {
+            channel.truncate(0);
+        }
+        this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, length);
+        this.buffer.order(ByteOrder.LITTLE_ENDIAN);
+        this.revocationsOffset = (int) revocationsOffset;
+        if (reusable && buffer.getInt(0) == MAGIC && buffer.getInt(4) == VERSION && buffer.getInt(8) == capacity
+                && buffer.getInt(REVOCATION_CAPACITY_OFFSET) == revocationCapacity) {
+            this.size = buffer.getInt(SIZE_OFFSET);
+            loadRevocations();
+        } else {
+            buffer.putInt(0, MAGIC);
+            buffer.putInt(4, VERSION);
+            buffer.putInt(8, capacity);
+            buffer.putInt(SIZE_OFFSET, 0);
+            buffer.putInt(REVOCATION_CAPACITY_OFFSET, revocationCapacity);
+            for (int i = 0; i < revocationCapacity; i++) {
+                buffer.putLong(revocationOffset(i) + 8, 0);
+            }
+            this.size = 0;
+        }
+    }
+
+    /**
+     * Stores a session, returning {@code false} when the table is at its load-factor limit.
+     */
+    public boolean put(long keyHi, long keyLo, Session session) {
+        byte[] email = session.email().getBytes(StandardCharsets.UTF_8);
+        if (email.length > MAX_EMAIL_BYTES) {
+            throw new IllegalArgumentException("Email too long for session store");
+        }
+        long stamp = lock.writeLock();
+        try {
+            int index = home(keyLo);
+            while (buffer.get(offset(index) + 32) == USED) {
+                if (matches(index, keyHi, keyLo)) {
+                    write(index, keyHi, keyLo, session, email);
+                    return true;
+                }
+                index = (index + 1) & mask;
+            }
+            if (size >= maxSize) {
+                return false;
+            }
+            write(index, keyHi, keyLo, session, email);
+            updateSize(size + 1);
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public Session get(long keyHi, long keyLo, long now) {
+        long stamp = lock.tryOptimisticRead();
+        Session session = find(keyHi, keyLo, now);
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                session = find(keyHi, keyLo, now);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return session == null || isRevoked(session.userId(), session.expiresAt()) ? null : session;
+    }
+
+    public boolean remove(long keyHi, long keyLo) {
+        long stamp = lock.writeLock();
+        try {
+            int index = home(keyLo);
+            for (int probes = 0; probes < capacity && buffer.get(offset(index) + 32) == USED; probes++) {
+                if (matches(index, keyHi, keyLo)) {
+                    delete(index);
+                    return true;
+                }
+                index = (index + 1) & mask;
+            }
+            return false;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Rejects every session of the user expiring at or before {@code horizon}, now and after a restart. Entries
+     * whose horizon has passed {@code now} are reused; when none is free the user's sessions are deleted instead.
+     */
+    public void revokeUser(long userId, long horizon, long now) {
+        long stamp = lock.writeLock();
+        try {
+            revokedBefore.merge(userId, horizon, Math::max);
+            int free = -1;
+            for (int i = 0; i < revocationCapacity; i++) {
+                int offset = revocationOffset(i);
+                long recorded = buffer.getLong(offset + 8);
+                if (recorded != 0 && buffer.getLong(offset) == userId) {
+                    buffer.putLong(offset + 8, Math.max(recorded, horizon));
+                    return;
+                }
+                if (free < 0 && recorded <= now) {
+                    free = i;
+                }
+            }
+            if (free >= 0) {
+                buffer.putLong(revocationOffset(free), userId);
+                buffer.putLong(revocationOffset(free) + 8, horizon);
+            } else {
+                deleteSessions(userId, horizon);
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Removes sessions that expired before {@code now} or were revoked in the {@code count} slots starting at
+     * {@code fromSlot}, holding the write lock only for that range, and forgets horizons that have passed.
+     * Returns the slot to continue from.
+     */
+    public int sweep(int fromSlot, int count, long now) {
+        int end = Math.min(capacity, fromSlot + count);
+        long stamp = lock.writeLock();
+        try {
+            int index = fromSlot;
+            while (index < end) {
+                int offset = offset(index);
+                if (buffer.get(offset + 32) == USED
+                        && (buffer.getLong(offset + 16) <= now
+                        || isRevoked(buffer.getLong(offset + 24), buffer.getLong(offset + 16)))) {
+                    delete(index);
+                } else {
+                    index++;
+                }
+            }
+            if (revokedBefore.values().removeIf(horizon -> horizon <= now)) {
+                for (int i = 0; i < revocationCapacity; i++) {
+                    if (buffer.getLong(revocationOffset(i) + 8) <= now) {
+                        buffer.putLong(revocationOffset(i) + 8, 0);
+                    }
+                }
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+        return end == capacity ? 0 : end;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public void force() {
+        buffer.force();
+    }
+
+    @Override
+    public void close() throws IOException {
+        force();
+        channel.close();
+    }
+
+    private static FileChannel open(Path file) throws IOException {
+        if (!file.getFileSystem().supportedFileAttributeViews().contains("posix")) {
+            return FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        }
+        FileAttribute<Set<PosixFilePermission>> ownerOnly = PosixFilePermissions.asFileAttribute(OWNER_ONLY);
+        FileChannel channel = FileChannel.open(file, EnumSet.of(StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE), ownerOnly);
+        Files.setPosixFilePermissions(file, OWNER_ONLY);
+        return channel;
+    }
+
+    private boolean isRevoked(long userId, long expiresAt) {
+        Long horizon = revokedBefore.get(userId);
+        return horizon != null && expiresAt <= horizon;
+    }
+
+    private void loadRevocations() {
+        for (int i = 0; i < revocationCapacity; i++) {
+            long horizon = buffer.getLong(revocationOffset(i) + 8);
+            if (horizon != 0) {
+                revokedBefore.merge(buffer.getLong(revocationOffset(i)), horizon, Math::max);
+            }
+        }
+    }
+
+    private void deleteSessions(long userId, long horizon) {
+        int index = 0;
+        while (index < capacity) {
+            int offset = offset(index);
+            if (buffer.get(offset + 32) == USED && buffer.getLong(offset + 24) == userId
+                    && buffer.getLong(offset + 16) <= horizon) {
+                delete(index);
+            } else {
+                index++;
+            }
+        }
+    }
+
+    private Session find(long keyHi, long keyLo, long now) {
+        int index = home(keyLo);
+        for (int probes = 0; probes < capacity; probes++) {
+            int offset = offset(index);
+            if (buffer.get(offset + 32) != USED) {
+                return null;
+            }
+            if (matches(index, keyHi, keyLo)) {
+                long expiresAt = buffer.getLong(offset + 16);
+                if (expiresAt <= now) {
+                    return null;
+                }
+                int roleOrdinal = buffer.get(offset + 33);
+                int emailLength = Math.min(Short.toUnsignedInt(buffer.getShort(offset + 34)), MAX_EMAIL_BYTES);
+                if (roleOrdinal < 0 || roleOrdinal >= ROLES.length) {
+                    return null;
+                }
+                byte[] email = new byte[emailLength];
+                buffer.get(offset + 36, email);
+                return new Session(buffer.getLong(offset + 24), new String(email, StandardCharsets.UTF_8),
+                        ROLES[roleOrdinal], expiresAt);
+            }
+            index = (index + 1) & mask;
+        }
+        return null;
+    }
+
+    private void delete(int index) {
+        int hole = index;
+        int next = index;
+        while (true) {
+            next = (next + 1) & mask;
+            int nextOffset = offset(next);
+            if (buffer.get(nextOffset + 32) != USED) {
+                break;
+            }
+            int nextHome = home(buffer.getLong(nextOffset + 8));
+            boolean movable = hole <= next
+                    ? nextHome <= hole || nextHome > next
+                    : nextHome <= hole && nextHome > next;
+            if (movable) {
+                buffer.get(nextOffset, scratch);
+                buffer.put(offset(hole), scratch);
+                hole = next;
+            }
+        }
+        buffer.put(offset(hole) + 32, EMPTY);
+        updateSize(size - 1);
+    }
+
+    private void write(int index, long keyHi, long keyLo, Session session, byte[] email) {
+        int offset = offset(index);
+        buffer.putLong(offset, keyHi);
+        buffer.putLong(offset + 8, keyLo);
+        buffer.putLong(offset + 16, session.expiresAt());
+        buffer.putLong(offset + 24, session.userId());
+        buffer.put(offset + 33, (byte) session.userRole().ordinal());
+        buffer.putShort(offset + 34, (short) email.length);
+        buffer.put(offset + 36, email);
+        buffer.put(offset + 32, USED);
+    }
+
+    private boolean matches(int index, long keyHi, long keyLo) {
+        int offset = offset(index);
+        return buffer.getLong(offset) == keyHi && buffer.getLong(offset + 8) == keyLo;
+    }
+
+    private void updateSize(int newSize) {
+        size = newSize;
+        buffer.putInt(SIZE_OFFSET, newSize);
+    }
+
+    private int home(long keyLo) {
+        return (int) (keyLo ^ (keyLo >>> 32)) & mask;
+    }
+
+    private static int offset(int index) {
+        return HEADER_SIZE + index * SLOT_SIZE;
+    }
+
+    private int revocationOffset(int index) {
+        return revocationsOffset + index * REVOCATION_SIZE;
+    }
+}
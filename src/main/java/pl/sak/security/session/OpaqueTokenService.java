@@ -0,0 +1,144 @@
+package pl.sak.security.session;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import pl.sak.security.cache.UserInvalidationBus;
+import pl.sak.security.model.User;
+import pl.sak.security.model.UserCredentials;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Optional;
+
+/**
+ * Issues short random bearer tokens whose sessions are kept in a {@link MappedSessionStore}. Tokens are
+ * 128 random bits encoded as 22 URL-safe characters, so unlike JWTs they can be revoked instantly. Sessions are
+ * stored under a truncated SHA-256 of the token, so the session file alone cannot be replayed. Expired and
+ * revoked sessions are swept incrementally, a batch of slots per run.
+ * <p>
+ * Revoking all sessions of a user goes over the {@link UserInvalidationBus}, so every node records a revocation
+ * horizon in its own store once the change commits; see {@link MappedSessionStore#revokeUser}.
+ * <p>
+ * The store is local to the node, so in opaque mode requests must be routed to the node that issued the token.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "security.token.mode", havingValue = "opaque")
+public class OpaqueTokenService {
+
+    private static final int TOKEN_BYTES = 16;
+    private static final int TOKEN_LENGTH = 22;
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final SecureRandom random = new SecureRandom();
+    private final UserInvalidationBus userInvalidationBus;
+    private final MappedSessionStore store;
+    private final long validityMillis;
+    private final int sweepBatch;
+    private int sweepCursor;
+
+    public OpaqueTokenService(UserInvalidationBus userInvalidationBus,
+                              @Value("${security.token.opaque.file:data/sessions.dat}") Path file,
+                              @Value("${security.token.opaque.capacity:1048576}") int capacity,
+                              @Value("${security.token.opaque.revocation-capacity:4096}") int revocationCapacity,
+                              @Value("${security.token.opaque.validity:24m}") Duration validity,
+                              @Value("${security.token.opaque.sweep-batch:4096}") int sweepBatch) throws IOException {
+        this.userInvalidationBus = userInvalidationBus;
+        this.store = new MappedSessionStore(file, capacity, revocationCapacity);
+        this.validityMillis = validity.toMillis();
+        this.sweepBatch = sweepBatch;
+        userInvalidationBus.onSessionsRevoked((userId, revokedAt) ->
+                store.revokeUser(userId, revokedAt + validityMillis, System.currentTimeMillis()));
+        log.info("Opened session store {} with {} of {} slots in use", file, store.size(), store.capacity());
+    }
+
+    public static boolean isOpaqueToken(String token) {
+        return token.length() == TOKEN_LENGTH && token.indexOf('.') < 0;
+    }
+
+    public String issue(Object user) {
+        long expiresAt = System.currentTimeMillis() + validityMillis;
+        Session session;
+        if (user instanceof UserCredentials credentials) {
+            session = new Session(credentials.getId(), credentials.getEmail(), credentials.getUserRole(), expiresAt);
+        } else if (user instanceof User entity) {
+            session = new Session(entity.getId(), entity.getEmail(), entity.getUserRole(), expiresAt);
+        } else {
+            throw new IllegalArgumentException("Unsupported principal " + user.getClass());
+        }
+        byte[] token = new byte[TOKEN_BYTES];
+        random.nextBytes(token);
+        ByteBuffer key = hash(token);
+        if (!store.put(key.getLong(), key.getLong(), session)) {
+            throw new IllegalStateException("Session store is full");
+        }
+        return ENCODER.encodeToString(token);
+    }
+
+    public Optional<Session> resolve(String token) {
+        ByteBuffer key = decode(token);
+        if (key == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(store.get(key.getLong(), key.getLong(), System.currentTimeMillis()));
+    }
+
+    public void revoke(String token) {
+        ByteBuffer key = decode(token);
+        if (key != null) {
+            store.remove(key.getLong(), key.getLong());
+        }
+    }
+
+    /**
+     * Revokes every session the user holds on any node when the surrounding transaction commits. Sessions issued
+     * after that expire later than the horizon and stay valid.
+     */
+    public void revokeUser(long userId) {
+        userInvalidationBus.publishSessionsRevoked(userId);
+    }
+
+    @Scheduled(fixedDelayString = "${security.token.opaque.sweep-interval-ms:1000}")
+    public synchronized void sweep() {
+        sweepCursor = store.sweep(sweepCursor, sweepBatch, System.currentTimeMillis());
+    }
+
+    public int size() {
+        return store.size();
+    }
+
+    @PreDestroy
+    public synchronized void close() throws IOException {
+        store.close();
+    }
+
+    private static ByteBuffer decode(String token) {
+        if (!isOpaqueToken(token)) {
+            return null;
+        }
+        try {
+            return hash(DECODER.decode(token));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static ByteBuffer hash(byte[] token) {
+        try {
+            return ByteBuffer.wrap(MessageDigest.getInstance("SHA-256").digest(token), 0, TOKEN_BYTES);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
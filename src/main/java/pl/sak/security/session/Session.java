@@ -0,0 +1,6 @@
+package pl.sak.security.session;
+
+import pl.sak.security.enums.UserRole;
+
+public record Session(long userId, String email, UserRole userRole, long expiresAt) {
+}
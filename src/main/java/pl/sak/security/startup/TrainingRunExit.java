@@ -0,0 +1,28 @@
+package pl.sak.security.startup;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Ends a CDS training run once the application is ready, so the JVM writes the class archive on exit.
+ * Checked at runtime rather than with a condition, because conditions are frozen by AOT processing.
+ */
+@Slf4j
+@Component
+public class TrainingRunExit {
+
+    @Value("${security.startup.training-run:false}")
+    private boolean trainingRun;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void exitAfterTraining(ApplicationReadyEvent event) {
+        if (trainingRun) {
+            log.info("Training run finished, exiting");
+            System.exit(SpringApplication.exit(event.getApplicationContext()));
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package pl.sak.security.startup;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.netflix.appinfo.ApplicationInfoManager;
+import com.netflix.appinfo.InstanceInfo;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import pl.sak.security.exception.ErrorMessage;
+import pl.sak.security.model.UserCredentials;
+import pl.sak.security.model.response.AuthenticationResponse;
+import pl.sak.security.repository.UserRepository;
+import pl.sak.security.service.JwtTokenService;
+
+import java.lang.management.CompilationMXBean;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+import static pl.sak.security.enums.UserRole.USER;
+
+/**
+ * Exercises the hot request paths against synthetic data until JIT compilation settles, before the node
+ * reports UP to Eureka. Application runners finish before {@code ApplicationReadyEvent}, so the readiness
+ * probe stays REFUSING_TRAFFIC for the whole warm-up. Requires {@code eureka.instance.initial-status: STARTING}.
+ * Where the JVM cannot report compilation time, a fixed {@code fallback-rounds} are run instead.
+ * <p>
+ * Operations that hit the database or BCrypt run only a few times per round, so warm-up does not load the
+ * database while the rest of the cluster is serving. A failed warm-up is logged and the node still goes UP cold.
+ */
+@Slf4j
+@Component
+public class WarmUpRunner implements ApplicationRunner {
+
+    private static final String WARM_UP_EMAIL = "warm-up@zuber.invalid";
+    private static final String WARM_UP_PASSWORD = "warm-up-password";
+
+    private final JwtTokenService jwtTokenService;
+    private final UserRepository userRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final ObjectMapper objectMapper;
+    private final ObjectProvider<ApplicationInfoManager> applicationInfoManager;
+    private final boolean enabled;
+    private final long maxDurationNanos;
+    private final int roundSize;
+    private final int lookupsPerRound;
+    private final int passwordChecksPerRound;
+    private final long settleThresholdMillis;
+    private final int settledRounds;
+    private final int fallbackRounds;
+
+    public WarmUpRunner(JwtTokenService jwtTokenService,
+                        UserRepository userRepository,
+                        PasswordEncoder passwordEncoder,
+                        ObjectMapper objectMapper,
+                        ObjectProvider<ApplicationInfoManager> applicationInfoManager,
+                        @Value("${security.warm-up.enabled:true}") boolean enabled,
+                        @Value("${security.warm-up.max-duration:30s}") Duration maxDuration,
+                        @Value("${security.warm-up.round-size:500}") int roundSize,
+                        @Value("${security.warm-up.lookups-per-round:5}") int lookupsPerRound,
+                        @Value("${security.warm-up.password-checks-per-round:2}") int passwordChecksPerRound,
+                        @Value("${security.warm-up.settle-threshold-ms:5}") long settleThresholdMillis,
+                        @Value("${security.warm-up.settled-rounds:2}") int settledRounds,
+                        @Value("${security.warm-up.fallback-rounds:10}") int fallbackRounds) {
+        this.jwtTokenService = jwtTokenService;
+        this.userRepository = userRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.objectMapper = objectMapper;
+        this.applicationInfoManager = applicationInfoManager;
+        this.enabled = enabled;
+        this.maxDurationNanos = maxDuration.toNanos();
+        this.roundSize = roundSize;
+        this.lookupsPerRound = lookupsPerRound;
+        this.passwordChecksPerRound = passwordChecksPerRound;
+        this.settleThresholdMillis = settleThresholdMillis;
+        this.settledRounds = settledRounds;
+        this.fallbackRounds = fallbackRounds;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        if (enabled) {
+            try {
+                warmUp();
+            } catch (Exception e) {
+                log.warn("Warm-up failed, reporting UP without it", e);
+            }
+        }
+        applicationInfoManager.ifAvailable(manager -> manager.setInstanceStatus(InstanceInfo.InstanceStatus.UP));
+    }
+
+    private void warmUp() throws Exception {
+        UserCredentials user = new UserCredentials(0L, WARM_UP_EMAIL, passwordEncoder.encode(WARM_UP_PASSWORD), USER, null);
+        ErrorMessage errorMessage = ErrorMessage.builder()
+                .timestamp(LocalDateTime.now())
+                .code(400)
+                .status("Bad Request")
+                .message("Wrong password!")
+                .uri("/auths/change-password")
+                .method("PATCH")
+                .build();
+        Map<String, Callable<?>> operations = new LinkedHashMap<>();
+        operations.put("token issue", () -> jwtTokenService.generateToken(user));
+        String token = jwtTokenService.generateToken(user);
+        operations.put("token verify", () -> jwtTokenService.isTokenValid(jwtTokenService.parseClaims(token), user));
+        operations.put("response json", () -> objectMapper.readValue(
+                objectMapper.writeValueAsString(new AuthenticationResponse(token)), AuthenticationResponse.class));
+        operations.put("error json", () -> serialize(errorMessage));
+
+        CompilationMXBean compilation = ManagementFactory.getCompilationMXBean();
+        boolean monitorCompilation = compilation != null && compilation.isCompilationTimeMonitoringSupported();
+        long start = System.nanoTime();
+        Map<String, long[]> cold = runRound(operations, user);
+        Map<String, long[]> warm = cold;
+        long lastCompilationTime = monitorCompilation ? compilation.getTotalCompilationTime() : 0;
+        int rounds = 1;
+        int quietRounds = 0;
+        while ((monitorCompilation ? quietRounds < settledRounds : rounds < fallbackRounds)
+                && System.nanoTime() - start < maxDurationNanos) {
+            warm = runRound(operations, user);
+            rounds++;
+            if (monitorCompilation) {
+                long compilationTime = compilation.getTotalCompilationTime();
+                quietRounds = compilationTime - lastCompilationTime <= settleThresholdMillis ? quietRounds + 1 : 0;
+                lastCompilationTime = compilationTime;
+            }
+        }
+        log.info("Warm-up finished after {} rounds in {} ms", rounds, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        for (Map.Entry<String, long[]> operation : cold.entrySet()) {
+            log.info("Warm-up {}: cold {}, warm {}",
+                    operation.getKey(), describe(operation.getValue()), describe(warm.get(operation.getKey())));
+        }
+    }
+
+    private Map<String, long[]> runRound(Map<String, Callable<?>> operations, UserCredentials user) throws Exception {
+        Map<String, long[]> latenciesByOperation = new LinkedHashMap<>();
+        for (Map.Entry<String, Callable<?>> operation : operations.entrySet()) {
+            latenciesByOperation.put(operation.getKey(), time(operation.getValue(), roundSize));
+        }
+        latenciesByOperation.put("credentials lookup",
+                time(() -> userRepository.findCredentialsByEmail(WARM_UP_EMAIL), lookupsPerRound));
+        latenciesByOperation.put("password match",
+                time(() -> passwordEncoder.matches(WARM_UP_PASSWORD, user.getPassword()), passwordChecksPerRound));
+        return latenciesByOperation;
+    }
+
+    private static long[] time(Callable<?> operation, int count) throws Exception {
+        long[] latencies = new long[count];
+        for (int i = 0; i < count; i++) {
+            long operationStart = System.nanoTime();
+            operation.call();
+            latencies[i] = System.nanoTime() - operationStart;
+        }
+        return latencies;
+    }
+
+    private String serialize(ErrorMessage errorMessage) throws JsonProcessingException {
+        return objectMapper.writeValueAsString(errorMessage);
+    }
+
+    private static String describe(long[] latencies) {
+        if (latencies.length == 0) {
+            return "n/a";
+        }
+        long[] sorted = latencies.clone();
+        Arrays.sort(sorted);
+        return String.format("p50=%dus p99=%dus max=%dus",
+                TimeUnit.NANOSECONDS.toMicros(percentile(sorted, 0.50)),
+                TimeUnit.NANOSECONDS.toMicros(percentile(sorted, 0.99)),
+                TimeUnit.NANOSECONDS.toMicros(sorted[sorted.length - 1]));
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        return sorted[(int) Math.ceil(percentile * sorted.length) - 1];
+    }
+}
@@ -0,0 +1,126 @@
+package pl.sak.security.statistics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Write-behind aggregator for {@code last_login_at} and {@code login_count}. Logins are coalesced per email in
+ * memory and flushed as batched updates on an interval, when the number of pending users reaches a threshold,
+ * and on shutdown. A login is therefore visible in the table only after the next flush.
+ */
+@Slf4j
+@Component
+public class LoginStatisticsAggregator {
+
+    private static final String UPDATE_SQL =
+            "UPDATE _user SET login_count = login_count + ?, last_login_at = ? WHERE email = ?";
+
+    private final ConcurrentMap<String, PendingLogins> pending = new ConcurrentHashMap<>();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private final JdbcTemplate jdbcTemplate;
+    private final TaskScheduler taskScheduler;
+    private final int flushThreshold;
+    private final int batchSize;
+    private final Counter flushedCounter;
+    private final Counter failedCounter;
+    private final Timer flushTimer;
+    private final Timer lagTimer;
+
+    public LoginStatisticsAggregator(JdbcTemplate jdbcTemplate,
+                                     TaskScheduler taskScheduler,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${security.login-statistics.flush-threshold:1000}") int flushThreshold,
+                                     @Value("${security.login-statistics.batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.taskScheduler = taskScheduler;
+        this.flushThreshold = flushThreshold;
+        this.batchSize = batchSize;
+        this.flushedCounter = meterRegistry.counter("security.login.statistics.flushed");
+        this.failedCounter = meterRegistry.counter("security.login.statistics.failed");
+        this.flushTimer = meterRegistry.timer("security.login.statistics.flush");
+        this.lagTimer = meterRegistry.timer("security.login.statistics.lag");
+        meterRegistry.gauge("security.login.statistics.pending", pending, Map::size);
+    }
+
+    public void recordLogin(String email) {
+        PendingLogins login = new PendingLogins(1, System.currentTimeMillis(), System.nanoTime());
+        pending.merge(email, login, PendingLogins::merge);
+        if (pending.size() >= flushThreshold && flushRequested.compareAndSet(false, true)) {
+            taskScheduler.schedule(this::flush, Instant.now());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${security.login-statistics.flush-interval-ms:1000}")
+    public synchronized void flush() {
+        flushRequested.set(false);
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<Object[]> batch = new ArrayList<>(Math.min(pending.size(), batchSize));
+        List<Map.Entry<String, PendingLogins>> drained = new ArrayList<>(batch.size());
+        for (String email : pending.keySet()) {
+            PendingLogins logins = pending.remove(email);
+            if (logins == null) {
+                continue;
+            }
+            drained.add(Map.entry(email, logins));
+            batch.add(new Object[]{logins.count(), new Timestamp(logins.lastLoginAt()), email});
+            if (batch.size() == batchSize) {
+                write(batch, drained);
+                batch.clear();
+                drained.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            write(batch, drained);
+        }
+    }
+
+    @PreDestroy
+    void drain() {
+        flush();
+    }
+
+    private void write(List<Object[]> batch, List<Map.Entry<String, PendingLogins>> drained) {
+        long start = System.nanoTime();
+        try {
+            jdbcTemplate.batchUpdate(UPDATE_SQL, batch);
+            flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            flushedCounter.increment(batch.size());
+            long now = System.nanoTime();
+            drained.forEach(entry -> lagTimer.record(now - entry.getValue().firstRecordedAt(), TimeUnit.NANOSECONDS));
+        } catch (DataAccessException e) {
+            log.warn("Failed to flush login statistics for {} users, keeping them for the next flush", batch.size(), e);
+            failedCounter.increment(batch.size());
+            drained.forEach(entry -> pending.merge(entry.getKey(), entry.getValue(), PendingLogins::merge));
+        }
+    }
+
+    private record PendingLogins(long count, long lastLoginAt, long firstRecordedAt) {
+
+        PendingLogins merge(PendingLogins other) {
+            return new PendingLogins(count + other.count,
+                    Math.max(lastLoginAt, other.lastLoginAt),
+                    Math.min(firstRecordedAt, other.firstRecordedAt));
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package pl.sak.security.validates;
+
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+import lombok.RequiredArgsConstructor;
+import pl.sak.security.breach.BreachedPasswordChecker;
+
+@RequiredArgsConstructor
+public class NotBreachedValidator implements ConstraintValidator<NotBreached, String> {
+
+    private final BreachedPasswordChecker breachedPasswordChecker;
+
+    @Override
+    public boolean isValid(String password, ConstraintValidatorContext context) {
+        return !breachedPasswordChecker.isBreached(password);
+    }
+}
@@ -4,10 +4,8 @@ import liquibase.Contexts;
 import liquibase.Liquibase;
 import liquibase.database.Database;
 import liquibase.database.jvm.JdbcConnection;
-import liquibase.exception.DatabaseException;
 import liquibase.exception.LiquibaseException;
 import liquibase.resource.ClassLoaderResourceAccessor;
-import lombok.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.test.context.ActiveProfiles;
 
@@ -19,21 +17,18 @@ import static liquibase.database.DatabaseFactory.getInstance;
 
 @Service
 @ActiveProfiles("test")
-@Value
 public class DatabaseCleaner {
 
-    Connection connection;
-    Database database;
-    Liquibase liquibase;
-
-    public DatabaseCleaner() throws SQLException, DatabaseException {
-        this.connection = DriverManager.getConnection("jdbc:h2:mem:test", "user", "password");
-        this.database = getInstance().findCorrectDatabaseImplementation(new JdbcConnection(connection));
-        this.liquibase = new Liquibase("liquibase-security-test-changelog.xml", new ClassLoaderResourceAccessor(), database);
-    }
-
     public void cleanUp() throws LiquibaseException {
-        liquibase.dropAll();
-        liquibase.update(new Contexts());
+        // A connection per clean-up, so no transaction or table lock outlives it and blocks another test context
+        try (Connection connection = DriverManager.getConnection("jdbc:h2:mem:test", "user", "password")) {
+            Database database = getInstance().findCorrectDatabaseImplementation(new JdbcConnection(connection));
+            Liquibase liquibase = new Liquibase("liquibase-security-test-changelog.xml", new ClassLoaderResourceAccessor(), database);
+            liquibase.dropAll();
+            liquibase.update(new Contexts());
+            database.commit();
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not clean up test database", e);
+        }
     }
 }
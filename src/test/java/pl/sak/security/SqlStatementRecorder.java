@@ -0,0 +1,109 @@
+package pl.sak.security;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+import reactor.core.scheduler.Schedulers;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Wraps the application {@link DataSource} and records the SQL executed by the calling thread while
+ * {@link #record(Action)} runs, including tasks it hands to Reactor schedulers. Background writers (audit log,
+ * login statistics, lockout) use their own threads and are therefore never counted.
+ */
+@Component
+public class SqlStatementRecorder implements BeanPostProcessor, QueryExecutionListener, DisposableBean {
+
+    private final ThreadLocal<List<String>> recording = new ThreadLocal<>();
+    private final String hookKey = SqlStatementRecorder.class.getName() + "@" + System.identityHashCode(this);
+
+    public SqlStatementRecorder() {
+        Schedulers.onScheduleHook(hookKey, task -> {
+            List<String> statements = recording.get();
+            if (statements == null) {
+                return task;
+            }
+            return () -> {
+                recording.set(statements);
+                try {
+                    task.run();
+                } finally {
+                    recording.remove();
+                }
+            };
+        });
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource) {
+            return ProxyDataSourceBuilder.create(dataSource)
+                    .name(beanName)
+                    .listener(this)
+                    .build();
+        }
+        return bean;
+    }
+
+    @Override
+    public void destroy() {
+        Schedulers.resetOnScheduleHook(hookKey);
+    }
+
+    public RecordedStatements record(Action action) throws Exception {
+        List<String> statements = Collections.synchronizedList(new ArrayList<>());
+        recording.set(statements);
+        try {
+            action.run();
+        } finally {
+            recording.remove();
+        }
+        return new RecordedStatements(statements);
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        List<String> statements = recording.get();
+        if (statements != null) {
+            queryInfoList.forEach(queryInfo -> statements.add(queryInfo.getQuery().trim()));
+        }
+    }
+
+    @FunctionalInterface
+    public interface Action {
+        void run() throws Exception;
+    }
+
+    public record RecordedStatements(List<String> statements) {
+
+        public void assertCounts(int selects, int inserts, int updates, int deletes) {
+            String message = "Unexpected SQL statements:\n" + String.join("\n", statements);
+            assertEquals(selects, count("select"), message);
+            assertEquals(inserts, count("insert"), message);
+            assertEquals(updates, count("update"), message);
+            assertEquals(deletes, count("delete"), message);
+            assertEquals(selects + inserts + updates + deletes, statements.size(), message);
+        }
+
+        private long count(String kind) {
+            return statements.stream()
+                    .filter(statement -> statement.toLowerCase(Locale.ROOT).startsWith(kind))
+                    .count();
+        }
+    }
+}
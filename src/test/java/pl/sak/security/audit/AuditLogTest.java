@@ -0,0 +1,83 @@
+package pl.sak.security.audit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+import static pl.sak.security.enums.AuditEventType.REGISTERED;
+
+class AuditLogTest {
+
+    private MeterRegistry meterRegistry;
+    private AuditLog auditLog;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        auditLog = new AuditLog(mock(JdbcTemplate.class), meterRegistry, 16, OverflowPolicy.DROP,
+                Duration.ofMillis(5), 4, Duration.ofMillis(50));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void shouldPublishImmediatelyOutsideTransaction() {
+        //When
+        auditLog.publishAfterCommit(REGISTERED, "test@example.com");
+
+        //Then
+        assertEquals(1, published());
+    }
+
+    @Test
+    void shouldPublishOnlyAfterCommit() {
+        //Given
+        TransactionSynchronizationManager.initSynchronization();
+
+        //When
+        auditLog.publishAfterCommit(REGISTERED, "test@example.com");
+
+        //Then
+        assertEquals(0, published());
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertEquals(1, published());
+    }
+
+    @Test
+    void shouldMaskLocalPartOfEmail() {
+        //When
+        String masked = AuditLog.maskEmail("b.bartek@example.com");
+
+        //Then
+        assertEquals("b***@example.com", masked);
+    }
+
+    @Test
+    void shouldMaskValueWithoutDomainCompletely() {
+        //When
+        String masked = AuditLog.maskEmail("not-an-email");
+
+        //Then
+        assertEquals("***", masked);
+        assertNull(AuditLog.maskEmail(null));
+    }
+
+    private double published() {
+        return meterRegistry.get("security.audit.published").counter().count();
+    }
+}
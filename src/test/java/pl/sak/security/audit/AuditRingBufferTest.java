@@ -0,0 +1,73 @@
+package pl.sak.security.audit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AuditRingBufferTest {
+
+    @Test
+    void shouldRejectElementsWhenFull() {
+        //Given
+        AuditRingBuffer<Integer> ringBuffer = new AuditRingBuffer<>(4);
+
+        //When
+        for (int i = 0; i < ringBuffer.capacity(); i++) {
+            assertTrue(ringBuffer.offer(i));
+        }
+
+        //Then
+        assertFalse(ringBuffer.offer(-1));
+        List<Integer> drained = new ArrayList<>();
+        ringBuffer.drainTo(drained, Integer.MAX_VALUE);
+        assertEquals(List.of(0, 1, 2, 3), drained);
+        assertTrue(ringBuffer.offer(4));
+    }
+
+    @Test
+    void shouldDeliverEveryElementFromConcurrentProducers() throws InterruptedException {
+        //Given
+        AuditRingBuffer<Integer> ringBuffer = new AuditRingBuffer<>(64);
+        int producers = 4;
+        int perProducer = 10_000;
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        CountDownLatch done = new CountDownLatch(producers);
+
+        //When
+        for (int p = 0; p < producers; p++) {
+            int offset = p * perProducer;
+            executor.execute(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    while (!ringBuffer.offer(offset + i)) {
+                        Thread.yield();
+                    }
+                }
+                done.countDown();
+            });
+        }
+        Set<Integer> received = new HashSet<>();
+        List<Integer> batch = new ArrayList<>();
+        while (received.size() < producers * perProducer) {
+            ringBuffer.drainTo(batch, 32);
+            received.addAll(batch);
+            batch.clear();
+        }
+        executor.shutdown();
+
+        //Then
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertEquals(producers * perProducer, received.size());
+        assertEquals(0, ringBuffer.size());
+    }
+}
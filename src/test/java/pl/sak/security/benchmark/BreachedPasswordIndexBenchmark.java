@@ -0,0 +1,84 @@
+package pl.sak.security.benchmark;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import pl.sak.security.breach.BreachedPasswordIndex;
+import pl.sak.security.breach.BreachedPasswordIndexBuilder;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Builds an index of synthetic hashes and measures lookups of present and absent hashes, together with the
+ * heap retained by the open index. Run with {@code mvn test -Pbenchmark}.
+ */
+class BreachedPasswordIndexBenchmark {
+
+    private static final int HASHES = 20_000_000;
+    private static final int LOOKUPS = 2_000_000;
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void shouldAnswerLookupsInMicroseconds() throws IOException {
+        //Given
+        Path list = directory.resolve("pwned.txt");
+        long step = Long.divideUnsigned(-1L, HASHES);
+        try (BufferedWriter writer = Files.newBufferedWriter(list)) {
+            for (long i = 0; i < HASHES; i++) {
+                writer.write(String.format("%016X%024X:1%n", i * step, 0));
+            }
+        }
+        Path index = directory.resolve("pwned.idx");
+        long start = System.nanoTime();
+        BreachedPasswordIndexBuilder.build(list, index, 1);
+        double buildSeconds = (System.nanoTime() - start) / 1e9;
+
+        //When
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        long heapBefore = runtime.totalMemory() - runtime.freeMemory();
+        try (BreachedPasswordIndex breachedPasswordIndex = new BreachedPasswordIndex(index)) {
+            System.gc();
+            long heapAfter = runtime.totalMemory() - runtime.freeMemory();
+            SplittableRandom random = new SplittableRandom(42);
+            long[] present = new long[LOOKUPS];
+            long[] absent = new long[LOOKUPS];
+            for (int i = 0; i < LOOKUPS; i++) {
+                present[i] = random.nextLong(HASHES) * step;
+                absent[i] = present[i] + 1;
+            }
+            measure(breachedPasswordIndex, present, true);
+            double hitNanos = measure(breachedPasswordIndex, present, true);
+            double missNanos = measure(breachedPasswordIndex, absent, false);
+
+            //Then
+            System.out.printf("index of %d hashes: %d MB, built in %.1f s%n", HASHES, Files.size(index) >> 20, buildSeconds);
+            System.out.printf("heap retained by open index: ~%d KB%n", Math.max(0, heapAfter - heapBefore) >> 10);
+            System.out.printf("lookup hit:  %6.0f ns/op%n", hitNanos);
+            System.out.printf("lookup miss: %6.0f ns/op%n", missNanos);
+            assertTrue(hitNanos < 10_000 && missNanos < 10_000);
+        }
+    }
+
+    private static double measure(BreachedPasswordIndex index, long[] hashes, boolean expected) {
+        int matching = 0;
+        long start = System.nanoTime();
+        for (long hash : hashes) {
+            if (index.contains(hash) == expected) {
+                matching++;
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        if (matching != hashes.length) {
+            throw new IllegalStateException("unexpected lookup result");
+        }
+        return (double) elapsed / hashes.length;
+    }
+}
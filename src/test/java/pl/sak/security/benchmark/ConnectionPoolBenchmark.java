@@ -0,0 +1,184 @@
+package pl.sak.security.benchmark;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.CountAtBucket;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import pl.sak.security.SecurityApplication;
+import pl.sak.security.repository.UserRepository;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the hot credential lookups ({@code findCredentialsByEmail} and {@code existsByEmail}) from 1x, 4x and 16x
+ * as many threads as the pool has connections and reports per-lookup latency next to the pool-acquire time taken
+ * from the {@code hikaricp.connections.acquire} timer the service exports, plus the peak of
+ * {@code hikaricp.connections.pending}. Acquire percentiles are bucket upper bounds from {@link #ACQUIRE_BUCKETS}.
+ * Against H2 this mostly shows queueing; pass {@code benchmark.datasource.url} (and {@code .username}/
+ * {@code .password}) to point it at a scratch Postgres database, whose schema is dropped and migrated, and it also
+ * compares the server-side statement cache with {@code prepareThreshold=0}. Run with {@code mvn test -Pbenchmark};
+ * numbers are printed, only completion is asserted.
+ */
+class ConnectionPoolBenchmark {
+
+    private static final String EMAIL = "b.bartek@example.com";
+    private static final int POOL_SIZE = 4;
+    private static final int[] THREADS_PER_CONNECTION = {1, 4, 16};
+    private static final Duration WARM_UP = Duration.ofSeconds(3);
+    private static final Duration MEASURED = Duration.ofSeconds(10);
+    private static final long HIGHEST_LATENCY_MICROS = TimeUnit.SECONDS.toMicros(10);
+    private static final long SAMPLE_INTERVAL_MILLIS = 10;
+    private static final String ACQUIRE_BUCKETS = "1us,2us,5us,10us,20us,50us,100us,200us,500us,1ms,2ms,5ms,10ms,20ms,"
+            + "50ms,100ms,200ms,500ms,1s,2s";
+
+    @Test
+    void shouldMeasureAcquireAndQueryLatencyAtSaturation() throws Exception {
+        //Given
+        String url = System.getProperty("benchmark.datasource.url");
+        boolean postgres = url != null && !url.isBlank();
+        List<Integer> prepareThresholds = postgres ? List.of(0, 1) : List.of(1);
+        List<Result> results = new ArrayList<>();
+
+        //When
+        for (int prepareThreshold : prepareThresholds) {
+            try (ConfigurableApplicationContext context = start(url, prepareThreshold)) {
+                UserRepository userRepository = context.getBean(UserRepository.class);
+                MeterRegistry meterRegistry = context.getBean(MeterRegistry.class);
+                for (int threadsPerConnection : THREADS_PER_CONNECTION) {
+                    int threads = POOL_SIZE * threadsPerConnection;
+                    run(userRepository, threads, WARM_UP);
+                    results.add(measure(userRepository, meterRegistry, prepareThreshold, threads));
+                }
+            }
+        }
+
+        //Then
+        System.out.printf("database: %s, pool size: %d%n", postgres ? url : "H2", POOL_SIZE);
+        System.out.printf("%9s %8s %12s %12s %12s %14s %14s %12s %9s%n", "prepare", "threads", "lookups/s",
+                "p50 us", "p99 us", "acquire p50", "acquire p99", "pending max", "timeouts");
+        for (Result result : results) {
+            System.out.printf("%9d %8d %12.0f %12d %12d %14d %14d %12d %9.0f%n", result.prepareThreshold(),
+                    result.threads(), result.lookups().getTotalCount() / (MEASURED.toNanos() / 1e9),
+                    result.lookups().getValueAtPercentile(50), result.lookups().getValueAtPercentile(99),
+                    result.acquireP50Micros(), result.acquireP99Micros(), result.pending().getMaxValue(),
+                    result.timeouts());
+            assertTrue(result.lookups().getTotalCount() > 0);
+        }
+    }
+
+    private static ConfigurableApplicationContext start(String url, int prepareThreshold) {
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.main.web-application-type=none",
+                "--security.rpc.enabled=false",
+                "--security.datasource.pool.max-size=" + POOL_SIZE,
+                "--security.datasource.statement-cache.prepare-threshold=" + prepareThreshold,
+                "--spring.jpa.show-sql=false",
+                "--spring.h2.console.enabled=false",
+                "--logging.level.root=WARN",
+                "--management.metrics.distribution.slo.hikaricp.connections.acquire=" + ACQUIRE_BUCKETS));
+        if (url != null && !url.isBlank()) {
+            args.addAll(List.of(
+                    "--spring.datasource.url=" + url,
+                    "--spring.datasource.username=" + System.getProperty("benchmark.datasource.username", "postgres"),
+                    "--spring.datasource.password=" + System.getProperty("benchmark.datasource.password", ""),
+                    "--spring.datasource.driverClassName=org.postgresql.Driver",
+                    "--spring.jpa.database-platform=org.hibernate.dialect.PostgreSQLDialect",
+                    "--spring.liquibase.change-log=classpath:liquibase-security-changelog.xml"));
+        }
+        return new SpringApplicationBuilder(SecurityApplication.class)
+                .profiles("test")
+                .run(args.toArray(String[]::new));
+    }
+
+    private static Result measure(UserRepository userRepository, MeterRegistry meterRegistry, int prepareThreshold,
+                                  int threads) throws Exception {
+        Timer acquire = meterRegistry.get("hikaricp.connections.acquire").tag("pool", "security").timer();
+        double timeoutsBefore = timeouts(meterRegistry);
+        HistogramSnapshot before = acquire.takeSnapshot();
+        Histogram pending = new Histogram(3);
+        ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+        sampler.scheduleAtFixedRate(() -> pending.recordValue((long) meterRegistry.get("hikaricp.connections.pending")
+                .tag("pool", "security").gauge().value()), 0, SAMPLE_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+        Histogram lookups;
+        try {
+            lookups = run(userRepository, threads, MEASURED);
+        } finally {
+            sampler.shutdownNow();
+            sampler.awaitTermination(1, TimeUnit.SECONDS);
+        }
+        HistogramSnapshot after = acquire.takeSnapshot();
+        return new Result(prepareThreshold, threads, lookups,
+                percentileMicros(before, after, 0.5), percentileMicros(before, after, 0.99), pending,
+                timeouts(meterRegistry) - timeoutsBefore);
+    }
+
+    private static Histogram run(UserRepository userRepository, int threads, Duration duration) throws Exception {
+        Recorder recorder = new Recorder(HIGHEST_LATENCY_MICROS, 3);
+        ExecutorService workers = Executors.newFixedThreadPool(threads);
+        long end = System.nanoTime() + duration.toNanos();
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(workers.submit(() -> {
+                    boolean exists = false;
+                    while (System.nanoTime() < end) {
+                        long start = System.nanoTime();
+                        if (exists) {
+                            userRepository.existsByEmail(EMAIL);
+                        } else {
+                            userRepository.findCredentialsByEmail(EMAIL);
+                        }
+                        exists = !exists;
+                        long latency = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start);
+                        recorder.recordValue(Math.min(latency, HIGHEST_LATENCY_MICROS));
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            workers.shutdownNow();
+        }
+        return recorder.getIntervalHistogram();
+    }
+
+    /**
+     * Upper bound of the {@link #ACQUIRE_BUCKETS} bucket holding the given percentile of the acquisitions made
+     * between the two cumulative snapshots.
+     */
+    private static long percentileMicros(HistogramSnapshot before, HistogramSnapshot after, double percentile) {
+        CountAtBucket[] start = before.histogramCounts();
+        CountAtBucket[] end = after.histogramCounts();
+        double total = after.count() - before.count();
+        for (int i = 0; i < end.length; i++) {
+            if (end[i].count() - start[i].count() >= percentile * total) {
+                return (long) end[i].bucket(TimeUnit.MICROSECONDS);
+            }
+        }
+        return (long) after.max(TimeUnit.MICROSECONDS);
+    }
+
+    private static double timeouts(MeterRegistry meterRegistry) {
+        return meterRegistry.get("hikaricp.connections.timeout").tag("pool", "security").counter().count();
+    }
+
+    private record Result(int prepareThreshold, int threads, Histogram lookups, long acquireP50Micros,
+                          long acquireP99Micros, Histogram pending, double timeouts) {
+    }
+}
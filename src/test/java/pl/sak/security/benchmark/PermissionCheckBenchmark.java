@@ -0,0 +1,86 @@
+package pl.sak.security.benchmark;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authorization.AuthorityAuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.util.SimpleMethodInvocation;
+import pl.sak.security.model.UserCredentials;
+import pl.sak.security.permission.PermissionAuthenticationToken;
+import pl.sak.security.permission.PermissionAuthorizationManager;
+import pl.sak.security.permission.RequiresPermission;
+import pl.sak.security.service.JwtTokenService;
+
+import java.lang.reflect.Field;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static pl.sak.security.enums.Permission.USERS_EXPORT;
+import static pl.sak.security.enums.UserRole.ADMIN;
+
+/**
+ * Compares the permission mask check with the string authority check it replaced, and reports the token size
+ * cost of the permissions claim. Run with {@code mvn test -Pbenchmark}.
+ */
+class PermissionCheckBenchmark {
+
+    private static final int WARM_UP_ITERATIONS = 2_000_000;
+    private static final int MEASURED_ITERATIONS = 10_000_000;
+
+    @Test
+    void shouldCheckPermissionsWithMaskComparison() throws Exception {
+        //Given
+        UserCredentials admin = new UserCredentials(1L, "b.bartek@example.com", "hash", ADMIN, null);
+        Authentication roleAuthentication = UsernamePasswordAuthenticationToken.authenticated(admin, null,
+                List.of(new SimpleGrantedAuthority("USER"), new SimpleGrantedAuthority("ADMIN")));
+        AuthorityAuthorizationManager<Object> roleCheck = AuthorityAuthorizationManager.hasAuthority("ADMIN");
+        Authentication permissionAuthentication = new PermissionAuthenticationToken(admin, ADMIN.getPermissionMask());
+        PermissionAuthorizationManager permissionCheck = new PermissionAuthorizationManager();
+        SimpleMethodInvocation invocation = new SimpleMethodInvocation(new Secured(), Secured.class.getMethod("export"));
+
+        BooleanSupplier stringScan = () -> roleCheck.check(() -> roleAuthentication, invocation).isGranted();
+        BooleanSupplier maskCheck = () -> permissionCheck.check(() -> permissionAuthentication, invocation).isGranted();
+
+        //When
+        measure(stringScan, WARM_UP_ITERATIONS);
+        measure(maskCheck, WARM_UP_ITERATIONS);
+        double stringNanos = measure(stringScan, MEASURED_ITERATIONS);
+        double maskNanos = measure(maskCheck, MEASURED_ITERATIONS);
+
+        JwtTokenService jwtTokenService = new JwtTokenService();
+        Field secret = JwtTokenService.class.getDeclaredField("secretKey");
+        secret.setAccessible(true);
+        secret.set(jwtTokenService, "bXlzdXBlcnNlY3JldGtleWZvcnRoZWJlbmNobWFya3dpdGhlbm91Z2hiaXRz");
+        int tokenLength = jwtTokenService.generateToken(admin).length();
+
+        //Then
+        System.out.printf("authority string check: %6.1f ns/op%n", stringNanos);
+        System.out.printf("permission mask check:  %6.1f ns/op%n", maskNanos);
+        System.out.printf("token length with permissions claim: %d chars%n", tokenLength);
+        assertTrue(tokenLength < 256);
+    }
+
+    private static double measure(BooleanSupplier check, int iterations) {
+        int granted = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            if (check.getAsBoolean()) {
+                granted++;
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        if (granted != iterations) {
+            throw new IllegalStateException("check denied access");
+        }
+        return (double) elapsed / iterations;
+    }
+
+    static class Secured {
+
+        @RequiresPermission(USERS_EXPORT)
+        public void export() {
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package pl.sak.security.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import pl.sak.security.SecurityApplication;
+import pl.sak.security.enums.TokenStatus;
+import pl.sak.security.model.request.AuthenticationRequest;
+import pl.sak.security.model.request.TokenVerificationRequest;
+import pl.sak.security.model.response.AuthenticationResponse;
+import pl.sak.security.rpc.TokenVerificationClient;
+import pl.sak.security.rpc.TokenVerificationServer;
+
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.http.HttpHeaders.CONTENT_TYPE;
+import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
+
+/**
+ * Compares token verification over the REST endpoint with the binary protocol, one request at a time on a
+ * persistent connection, and the binary protocol's batch form. CPU is the whole process, client included, per
+ * verified token. Run with {@code mvn test -Pbenchmark}; numbers are printed, only the latency ordering is
+ * asserted.
+ */
+@SpringBootTest(classes = SecurityApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "spring.jpa.show-sql=false",
+                "spring.h2.console.enabled=false",
+                "logging.level.root=WARN"
+        })
+@ActiveProfiles("test")
+class TokenVerificationBenchmark {
+
+    private static final int WARM_UP_ITERATIONS = 20_000;
+    private static final int MEASURED_ITERATIONS = 50_000;
+    private static final int BATCH_SIZE = 100;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TokenVerificationServer server;
+
+    private final HttpClient httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+    @Test
+    void shouldVerifyFasterOverBinaryProtocol() throws Exception {
+        //Given
+        String token = authenticate();
+        HttpRequest restRequest = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/tokens/verify"))
+                .header(CONTENT_TYPE, APPLICATION_JSON_VALUE)
+                .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(
+                        TokenVerificationRequest.builder().token(token).build())))
+                .build();
+        List<String> batch = Collections.nCopies(BATCH_SIZE, token);
+
+        try (TokenVerificationClient client = new TokenVerificationClient("localhost", server.getPort())) {
+            Operation rest = () -> {
+                HttpResponse<String> response = httpClient.send(restRequest, HttpResponse.BodyHandlers.ofString());
+                if (response.statusCode() != 200 || !response.body().contains("VALID")) {
+                    throw new IllegalStateException(response.body());
+                }
+            };
+            Operation binary = () -> {
+                if (client.verify(1, token).results().get(0).status() != TokenStatus.VALID) {
+                    throw new IllegalStateException();
+                }
+            };
+            Operation binaryBatch = () -> assertEquals(BATCH_SIZE, client.verifyAll(2, batch).results().size());
+            measure(rest, WARM_UP_ITERATIONS, 1);
+            measure(binary, WARM_UP_ITERATIONS, 1);
+            measure(binaryBatch, WARM_UP_ITERATIONS / BATCH_SIZE, BATCH_SIZE);
+
+            //When
+            Result restResult = measure(rest, MEASURED_ITERATIONS, 1);
+            Result binaryResult = measure(binary, MEASURED_ITERATIONS, 1);
+            Result batchResult = measure(binaryBatch, MEASURED_ITERATIONS / BATCH_SIZE, BATCH_SIZE);
+
+            //Then
+            System.out.printf("%-22s %10s %10s %10s %14s%n", "", "p50 us", "p99 us", "p99.9 us", "cpu us/token");
+            print("REST /tokens/verify", restResult);
+            print("binary verify", binaryResult);
+            print("binary batch x" + BATCH_SIZE, batchResult);
+            assertTrue(binaryResult.latency().getValueAtPercentile(50) < restResult.latency().getValueAtPercentile(50));
+        }
+    }
+
+    private static Result measure(Operation operation, int iterations, int tokensPerCall) throws Exception {
+        com.sun.management.OperatingSystemMXBean os =
+                (com.sun.management.OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean();
+        Histogram latency = new Histogram(3);
+        long cpuBefore = os.getProcessCpuTime();
+        for (int i = 0; i < iterations; i++) {
+            long start = System.nanoTime();
+            operation.run();
+            latency.recordValue((System.nanoTime() - start) / 1000);
+        }
+        long cpu = os.getProcessCpuTime() - cpuBefore;
+        return new Result(latency, cpu / 1000.0 / ((long) iterations * tokensPerCall));
+    }
+
+    private static void print(String name, Result result) {
+        System.out.printf("%-22s %10d %10d %10d %14.2f%n", name,
+                result.latency().getValueAtPercentile(50),
+                result.latency().getValueAtPercentile(99),
+                result.latency().getValueAtPercentile(99.9),
+                result.cpuMicrosPerToken());
+    }
+
+    private String authenticate() throws Exception {
+        AuthenticationRequest request = AuthenticationRequest.builder()
+                .email("b.bartek@example.com")
+                .password("admin")
+                .build();
+        HttpResponse<String> response = httpClient.send(
+                HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/auths/authenticate"))
+                        .header(CONTENT_TYPE, APPLICATION_JSON_VALUE)
+                        .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(request)))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+        return objectMapper.readValue(response.body(), AuthenticationResponse.class).getToken();
+    }
+
+    @FunctionalInterface
+    private interface Operation {
+
+        void run() throws Exception;
+    }
+
+    private record Result(Histogram latency, double cpuMicrosPerToken) {
+    }
+}
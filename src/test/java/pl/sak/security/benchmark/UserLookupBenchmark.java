@@ -0,0 +1,63 @@
+package pl.sak.security.benchmark;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import pl.sak.security.SecurityApplication;
+import pl.sak.security.repository.UserRepository;
+
+import java.lang.management.ManagementFactory;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares the managed-entity lookup with the read-only credentials projection used on the authentication
+ * paths. Run with {@code mvn test -Pbenchmark}; numbers are printed, only the allocation ordering is asserted.
+ */
+@SpringBootTest(classes = SecurityApplication.class)
+@ActiveProfiles("test")
+class UserLookupBenchmark {
+
+    private static final String EMAIL = "b.bartek@example.com";
+    private static final int WARM_UP_ITERATIONS = 5_000;
+    private static final int MEASURED_ITERATIONS = 10_000;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void shouldAllocateLessWithCredentialsProjection() {
+        //Given
+        measure(() -> userRepository.findByEmail(EMAIL), WARM_UP_ITERATIONS);
+        measure(() -> userRepository.findCredentialsByEmail(EMAIL), WARM_UP_ITERATIONS);
+
+        //When
+        Result entity = measure(() -> userRepository.findByEmail(EMAIL), MEASURED_ITERATIONS);
+        Result projection = measure(() -> userRepository.findCredentialsByEmail(EMAIL), MEASURED_ITERATIONS);
+
+        //Then
+        System.out.printf("findByEmail:            %,8d ns/op %,8d B/op%n", entity.nanosPerOp(), entity.bytesPerOp());
+        System.out.printf("findCredentialsByEmail: %,8d ns/op %,8d B/op%n", projection.nanosPerOp(), projection.bytesPerOp());
+        assertTrue(projection.bytesPerOp() < entity.bytesPerOp());
+    }
+
+    private static Result measure(Supplier<?> lookup, int iterations) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            if (lookup.get() == null) {
+                throw new IllegalStateException();
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+        return new Result(elapsed / iterations, allocated / iterations);
+    }
+
+    private record Result(long nanosPerOp, long bytesPerOp) {
+    }
+}
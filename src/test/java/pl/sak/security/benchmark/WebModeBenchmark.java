@@ -0,0 +1,149 @@
+package pl.sak.security.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.junit.jupiter.api.Test;
+import org.apache.tomcat.util.threads.ThreadPoolExecutor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.boot.web.embedded.tomcat.TomcatWebServer;
+import org.springframework.context.ConfigurableApplicationContext;
+import pl.sak.security.SecurityApplication;
+import pl.sak.security.model.request.AuthenticationRequest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.http.HttpHeaders.CONTENT_TYPE;
+import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
+
+/**
+ * Boots the service once per {@code security.web.mode} and hammers {@code /auths/authenticate} from
+ * {@link #CLIENTS} concurrent keep-alive connections, each sending its next request as soon as the previous one
+ * returns. Reports throughput, latency and how many Tomcat request threads were busy, sampled every
+ * {@link #SAMPLE_INTERVAL_MILLIS} ms. The concurrency
+ * limiter is disabled so both modes see the full load. Run with {@code mvn test -Pbenchmark}; numbers are
+ * printed, only completion is asserted.
+ */
+class WebModeBenchmark {
+
+    private static final int CLIENTS = 64;
+    private static final Duration WARM_UP = Duration.ofSeconds(5);
+    private static final Duration MEASURED = Duration.ofSeconds(20);
+    private static final long HIGHEST_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(1);
+    private static final long SAMPLE_INTERVAL_MILLIS = 10;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void shouldCompareServletAndReactiveModes() throws Exception {
+        //Given
+        List<Result> results = new ArrayList<>();
+
+        //When
+        for (String mode : List.of("servlet", "reactive")) {
+            try (ConfigurableApplicationContext context = start(mode)) {
+                TomcatWebServer server = (TomcatWebServer) ((WebServerApplicationContext) context).getWebServer();
+                ThreadPoolExecutor requestThreads = (ThreadPoolExecutor) server.getTomcat().getConnector()
+                        .getProtocolHandler().getExecutor();
+                run(mode, server.getPort(), WARM_UP, requestThreads);
+                results.add(run(mode, server.getPort(), MEASURED, requestThreads));
+            }
+        }
+
+        //Then
+        System.out.printf("%-9s %9s %7s %9s %9s %9s %9s %12s %12s%n",
+                "mode", "count", "errors", "req/s", "p50 ms", "p99 ms", "max ms", "busy avg", "busy max");
+        for (Result result : results) {
+            Histogram histogram = result.histogram();
+            System.out.printf("%-9s %9d %7d %9.1f %9.1f %9.1f %9.1f %12.1f %12d%n", result.mode(),
+                    histogram.getTotalCount(), result.errors(),
+                    (histogram.getTotalCount() - result.errors()) / result.seconds(),
+                    histogram.getValueAtPercentile(50) / 1000.0,
+                    histogram.getValueAtPercentile(99) / 1000.0,
+                    histogram.getMaxValue() / 1000.0,
+                    result.busyThreads().getMean(),
+                    result.busyThreads().getMaxValue());
+            assertTrue(histogram.getTotalCount() > 0);
+        }
+    }
+
+    private static ConfigurableApplicationContext start(String mode) {
+        return new SpringApplicationBuilder(SecurityApplication.class)
+                .profiles("test")
+                .run("--server.port=0",
+                        "--security.web.mode=" + mode,
+                        "--security.limiter.enabled=false",
+                        "--security.rpc.enabled=false",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.h2.console.enabled=false",
+                        "--logging.level.root=WARN");
+    }
+
+    private Result run(String mode, int port, Duration duration, ThreadPoolExecutor requestThreads) throws Exception {
+        byte[] body = objectMapper.writeValueAsBytes(AuthenticationRequest.builder()
+                .email("b.bartek@example.com")
+                .password("admin")
+                .build());
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/auths/authenticate"))
+                .header(CONTENT_TYPE, APPLICATION_JSON_VALUE)
+                .timeout(Duration.ofMinutes(1))
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+                .build();
+        Recorder recorder = new Recorder(HIGHEST_LATENCY_MICROS, 3);
+        LongAdder errors = new LongAdder();
+        Histogram busyThreads = new Histogram(3);
+        ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+        sampler.scheduleAtFixedRate(() -> busyThreads.recordValue(requestThreads.getActiveCount()),
+                0, SAMPLE_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < CLIENTS; i++) {
+                futures.add(clients.submit(() -> {
+                    while (System.nanoTime() < end) {
+                        long sent = System.nanoTime();
+                        try {
+                            if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() != 200) {
+                                errors.increment();
+                            }
+                        } catch (Exception e) {
+                            errors.increment();
+                        }
+                        long latency = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - sent);
+                        recorder.recordValue(Math.min(latency, HIGHEST_LATENCY_MICROS));
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            clients.shutdownNow();
+            sampler.shutdownNow();
+            sampler.awaitTermination(1, TimeUnit.SECONDS);
+        }
+        return new Result(mode, recorder.getIntervalHistogram(), errors.sum(), (System.nanoTime() - start) / 1e9,
+                busyThreads);
+    }
+
+    private record Result(String mode, Histogram histogram, long errors, double seconds, Histogram busyThreads) {
+    }
+}
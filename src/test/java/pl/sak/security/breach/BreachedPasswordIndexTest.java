@@ -0,0 +1,144 @@
+package pl.sak.security.breach;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BreachedPasswordIndexTest {
+
+    // SHA-1 of "password", "123456" and "qwerty"
+    private static final String PASSWORD = "5BAA61E4C9B93F3F0682250B6CF8331B7EE68FD8";
+    private static final String NUMBERS = "7C4A8D09CA3762AF61E59520943DC26494F8941B";
+    private static final String QWERTY = "B1B3773A05C0ED0176787A4F1574FF0075F7521E";
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void shouldFindHashesFromOrderedList() throws IOException {
+        //Given
+        Path list = Files.write(directory.resolve("pwned.txt"), List.of(
+                "00000000000000000000000000000000000000AA:3",
+                PASSWORD + ":9545824",
+                NUMBERS + ":37359195",
+                QWERTY + ":1",
+                "FFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFF:2"));
+        Path index = directory.resolve("pwned.idx");
+
+        //When
+        long entries = BreachedPasswordIndexBuilder.build(list, index, 2);
+
+        //Then
+        assertEquals(4, entries);
+        try (BreachedPasswordIndex breachedPasswordIndex = new BreachedPasswordIndex(index)) {
+            assertTrue(breachedPasswordIndex.contains(0L));
+            assertTrue(breachedPasswordIndex.contains(Long.parseUnsignedLong(PASSWORD.substring(0, 16), 16)));
+            assertTrue(breachedPasswordIndex.contains(Long.parseUnsignedLong(NUMBERS.substring(0, 16), 16)));
+            assertTrue(breachedPasswordIndex.contains(-1L));
+            assertFalse(breachedPasswordIndex.contains(Long.parseUnsignedLong(QWERTY.substring(0, 16), 16)));
+            assertFalse(breachedPasswordIndex.contains(1L));
+        }
+    }
+
+    @Test
+    void shouldBuildIndexFromRangeFiles() throws IOException {
+        //Given
+        Path ranges = Files.createDirectory(directory.resolve("ranges"));
+        Files.write(ranges.resolve(NUMBERS.substring(0, 5)), List.of(NUMBERS.substring(5) + ":37359195"));
+        Files.write(ranges.resolve(PASSWORD.substring(0, 5)), List.of(PASSWORD.substring(5) + ":9545824"));
+        Path index = directory.resolve("ranges.idx");
+
+        //When
+        BreachedPasswordIndexBuilder.build(ranges, index, 1);
+
+        //Then
+        try (BreachedPasswordIndex breachedPasswordIndex = new BreachedPasswordIndex(index)) {
+            assertEquals(2, breachedPasswordIndex.size());
+            assertTrue(breachedPasswordIndex.contains(Long.parseUnsignedLong(PASSWORD.substring(0, 16), 16)));
+            assertTrue(breachedPasswordIndex.contains(Long.parseUnsignedLong(NUMBERS.substring(0, 16), 16)));
+        }
+    }
+
+    @Test
+    void shouldIgnoreFilesNotNamedAfterHashPrefix() throws IOException {
+        //Given
+        Path ranges = Files.createDirectory(directory.resolve("ranges"));
+        Files.write(ranges.resolve(PASSWORD.substring(0, 5).toLowerCase()), List.of(PASSWORD.substring(5) + ":9545824"));
+        Files.write(ranges.resolve("README.md"), List.of("# Pwned Passwords ranges"));
+        Files.write(ranges.resolve(".DS_Store"), List.of("binary"));
+        Files.write(ranges.resolve(NUMBERS.substring(0, 5) + ".txt"), List.of(NUMBERS.substring(5) + ":37359195"));
+        Path index = directory.resolve("ranges.idx");
+
+        //When
+        long entries = BreachedPasswordIndexBuilder.build(ranges, index, 1);
+
+        //Then
+        assertEquals(1, entries);
+        try (BreachedPasswordIndex breachedPasswordIndex = new BreachedPasswordIndex(index)) {
+            assertTrue(breachedPasswordIndex.contains(Long.parseUnsignedLong(PASSWORD.substring(0, 16), 16)));
+            assertFalse(breachedPasswordIndex.contains(Long.parseUnsignedLong(NUMBERS.substring(0, 16), 16)));
+        }
+    }
+
+    @Test
+    void shouldRejectUnorderedList() throws IOException {
+        //Given
+        Path list = Files.write(directory.resolve("unordered.txt"), List.of(NUMBERS + ":1", PASSWORD + ":1"));
+
+        //When
+        //Then
+        assertThrows(IllegalArgumentException.class,
+                () -> BreachedPasswordIndexBuilder.build(list, directory.resolve("unordered.idx"), 1));
+    }
+
+    @Test
+    void shouldScreenPasswordsAgainstIndex() throws IOException {
+        //Given
+        Path list = Files.write(directory.resolve("pwned.txt"), List.of(PASSWORD + ":1", NUMBERS + ":1"));
+        Path index = directory.resolve("pwned.idx");
+        BreachedPasswordIndexBuilder.build(list, index, 1);
+
+        //When
+        BreachedPasswordChecker checker = new BreachedPasswordChecker(index.toString(), new SimpleMeterRegistry());
+
+        //Then
+        assertTrue(checker.isBreached("password"));
+        assertTrue(checker.isBreached("123456"));
+        assertFalse(checker.isBreached("qwerty"));
+        checker.close();
+    }
+
+    @Test
+    void shouldAcceptEveryPasswordWhenScreeningIsDisabled() throws IOException {
+        //Given
+        BreachedPasswordChecker checker = new BreachedPasswordChecker("", new SimpleMeterRegistry());
+
+        //When
+        boolean breached = checker.isBreached("password");
+
+        //Then
+        assertFalse(breached);
+        checker.close();
+    }
+
+    @Test
+    void shouldFailToStartWhenIndexIsMissing() {
+        //Given
+        String missing = directory.resolve("missing.idx").toString();
+
+        //When
+        //Then
+        assertThrows(NoSuchFileException.class, () -> new BreachedPasswordChecker(missing, new SimpleMeterRegistry()));
+    }
+}
@@ -0,0 +1,99 @@
+package pl.sak.security.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import pl.sak.security.model.User;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static pl.sak.security.enums.UserRole.USER;
+
+class UserCacheTest {
+
+    private UserCache userCache;
+
+    @BeforeEach
+    void setUp() {
+        userCache = new UserCache(Duration.ofMinutes(5), 3);
+    }
+
+    @Test
+    void shouldEvictSingleEntryWhenFull() {
+        //Given
+        for (int i = 0; i < 3; i++) {
+            userCache.put("user" + i + "@example.com", user("user" + i + "@example.com"), userCache.stamp());
+        }
+
+        //When
+        userCache.put("new@example.com", user("new@example.com"), userCache.stamp());
+
+        //Then
+        assertEquals(3, userCache.size());
+        assertFalse(userCache.get("new@example.com").isEmpty());
+    }
+
+    @Test
+    void shouldRejectLoadStartedBeforeInvalidation() {
+        //Given
+        long stamp = userCache.stamp();
+
+        //When
+        userCache.evict("test@example.com");
+        boolean stored = userCache.put("test@example.com", user("test@example.com"), stamp);
+
+        //Then
+        assertFalse(stored);
+        assertTrue(userCache.get("test@example.com").isEmpty());
+    }
+
+    @Test
+    void shouldCacheLoadStartedAfterInvalidation() {
+        //Given
+        userCache.evict("test@example.com");
+        long stamp = userCache.stamp();
+
+        //When
+        boolean stored = userCache.put("test@example.com", user("test@example.com"), stamp);
+
+        //Then
+        assertTrue(stored);
+        assertFalse(userCache.get("test@example.com").isEmpty());
+    }
+
+    @Test
+    void shouldRejectLoadStartedBeforeEvictAll() {
+        //Given
+        long stamp = userCache.stamp();
+
+        //When
+        userCache.evictAll();
+        boolean stored = userCache.put("test@example.com", user("test@example.com"), stamp);
+
+        //Then
+        assertFalse(stored);
+        assertTrue(userCache.get("test@example.com").isEmpty());
+    }
+
+    @Test
+    void shouldRejectLoadStartedBeforeInvalidationWhenTombstoneWasEvicted() {
+        //Given
+        long stamp = userCache.stamp();
+        userCache.evict("test@example.com");
+
+        //When
+        for (int i = 0; i < 4; i++) {
+            userCache.put("user" + i + "@example.com", user("user" + i + "@example.com"), userCache.stamp());
+        }
+        boolean stored = userCache.put("test@example.com", user("test@example.com"), stamp);
+
+        //Then
+        assertFalse(stored);
+    }
+
+    private static User user(String email) {
+        return User.builder().email(email).userRole(USER).build();
+    }
+}
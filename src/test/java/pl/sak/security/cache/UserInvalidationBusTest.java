@@ -0,0 +1,94 @@
+package pl.sak.security.cache;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import pl.sak.security.model.User;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static pl.sak.security.enums.UserRole.USER;
+
+class UserInvalidationBusTest {
+
+    private UserCache userCache;
+    private UserInvalidationBus userInvalidationBus;
+
+    @BeforeEach
+    void setUp() {
+        userCache = new UserCache(Duration.ofMinutes(5), 100);
+        userInvalidationBus = new LocalUserInvalidationBus(userCache);
+        userCache.put("test@example.com", User.builder().email("test@example.com").userRole(USER).build(),
+                userCache.stamp());
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void shouldEvictUserImmediatelyOutsideTransaction() {
+        //When
+        userInvalidationBus.publishUserChanged("test@example.com");
+
+        //Then
+        assertTrue(userCache.get("test@example.com").isEmpty());
+    }
+
+    @Test
+    void shouldEvictUserOnlyAfterCommit() {
+        //Given
+        TransactionSynchronizationManager.initSynchronization();
+
+        //When
+        userInvalidationBus.publishUserChanged("test@example.com");
+
+        //Then
+        assertFalse(userCache.get("test@example.com").isEmpty());
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertTrue(userCache.get("test@example.com").isEmpty());
+    }
+
+    @Test
+    void shouldRevokeSessionsOnlyAfterCommit() {
+        //Given
+        List<Long> revoked = new ArrayList<>();
+        userInvalidationBus.onSessionsRevoked((userId, revokedAt) -> revoked.add(userId));
+        TransactionSynchronizationManager.initSynchronization();
+
+        //When
+        userInvalidationBus.publishSessionsRevoked(7L);
+
+        //Then
+        assertTrue(revoked.isEmpty());
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertEquals(List.of(7L), revoked);
+    }
+
+    @Test
+    void shouldSplitNotificationsIntoPayloadsWithinPostgresLimit() {
+        //Given
+        List<String> emails = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            emails.add("user" + i + "@example.com");
+        }
+
+        //When
+        List<String> payloads = PostgresUserInvalidationBus.toPayloads(emails);
+
+        //Then
+        assertTrue(payloads.size() > 1);
+        payloads.forEach(payload -> assertTrue(payload.length() <= PostgresUserInvalidationBus.MAX_PAYLOAD_BYTES));
+        assertEquals(emails, payloads.stream().flatMap(payload -> List.of(payload.split("\n")).stream()).toList());
+    }
+}
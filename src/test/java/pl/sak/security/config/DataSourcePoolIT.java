@@ -0,0 +1,95 @@
+package pl.sak.security.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import pl.sak.security.SecurityApplication;
+import pl.sak.security.SqlStatementRecorder;
+import pl.sak.security.SqlStatementRecorder.RecordedStatements;
+import pl.sak.security.repository.UserRepository;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(classes = SecurityApplication.class)
+@ActiveProfiles("test")
+class DataSourcePoolIT {
+
+    private final DataSource dataSource;
+    private final MeterRegistry meterRegistry;
+    private final UserRepository userRepository;
+    private final SqlStatementRecorder sqlStatementRecorder;
+
+    @Autowired
+    public DataSourcePoolIT(DataSource dataSource, MeterRegistry meterRegistry, UserRepository userRepository,
+                            SqlStatementRecorder sqlStatementRecorder) {
+        this.dataSource = dataSource;
+        this.meterRegistry = meterRegistry;
+        this.userRepository = userRepository;
+        this.sqlStatementRecorder = sqlStatementRecorder;
+    }
+
+    @Test
+    void shouldConfigurePoolWithDriverValidationAndStatementCache() throws Exception {
+        //When
+        HikariDataSource pool = dataSource.unwrap(HikariDataSource.class);
+
+        //Then
+        assertEquals("security", pool.getPoolName());
+        assertEquals(20, pool.getMaximumPoolSize());
+        assertNull(pool.getConnectionTestQuery());
+        assertEquals(120_000, pool.getKeepaliveTime());
+        assertEquals("1", pool.getDataSourceProperties().getProperty("prepareThreshold"));
+        assertEquals("512", pool.getDataSourceProperties().getProperty("preparedStatementCacheQueries"));
+        assertEquals("8", pool.getDataSourceProperties().getProperty("preparedStatementCacheSizeMiB"));
+    }
+
+    @Test
+    void shouldRecordPoolAcquireTimeAndUsage() {
+        //Given
+        long acquiredBefore = acquireTimer().count();
+
+        //When
+        for (int i = 0; i < 10; i++) {
+            userRepository.findCredentialsByEmail("b.bartek@example.com");
+        }
+
+        //Then
+        assertTrue(acquireTimer().count() >= acquiredBefore + 10);
+        assertNotNull(meterRegistry.find("hikaricp.connections.acquire.percentile")
+                .tags("pool", "security", "phi", "0.99").gauge());
+        assertNotNull(meterRegistry.find("hikaricp.connections.active").tag("pool", "security").gauge());
+        assertNotNull(meterRegistry.find("hikaricp.connections.pending").tag("pool", "security").gauge());
+        assertEquals(0, meterRegistry.get("hikaricp.connections.timeout").tag("pool", "security").counter().count());
+    }
+
+    @Test
+    void shouldCheckEmailExistenceWithSingleStatement() throws Exception {
+        //Given
+        boolean[] exists = new boolean[2];
+
+        //When
+        RecordedStatements statements = sqlStatementRecorder.record(() -> {
+            exists[0] = userRepository.existsByEmail("b.bartek@example.com");
+            exists[1] = userRepository.existsByEmail("missing@example.com");
+        });
+
+        //Then
+        assertTrue(exists[0]);
+        assertFalse(exists[1]);
+        statements.assertCounts(2, 0, 0, 0);
+    }
+
+    private Timer acquireTimer() {
+        return meterRegistry.get("hikaricp.connections.acquire").tag("pool", "security").timer();
+    }
+}
@@ -0,0 +1,33 @@
+package pl.sak.security.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+import pl.sak.security.model.request.RegisterRequest;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NativeRuntimeHintsTest {
+
+    @Test
+    void shouldRegisterHintsForReflectiveLibrariesAndResources() {
+        //Given
+        RuntimeHints hints = new RuntimeHints();
+
+        //When
+        new NativeRuntimeHints().registerHints(hints, getClass().getClassLoader());
+
+        //Then
+        assertTrue(RuntimeHintsPredicates.reflection()
+                .onType(TypeReference.of("io.jsonwebtoken.impl.DefaultJwtBuilder"))
+                .withMemberCategory(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS)
+                .test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onType(RegisterRequest.class).test(hints));
+        assertTrue(RuntimeHintsPredicates.resource().forResource("changesets/create-security-tables.xml").test(hints));
+        assertTrue(RuntimeHintsPredicates.resource()
+                .forResource("www.liquibase.org/xml/ns/dbchangelog/dbchangelog-4.24.xsd")
+                .test(hints));
+    }
+}
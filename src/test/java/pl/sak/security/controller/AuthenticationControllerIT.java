@@ -14,12 +14,19 @@ import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
 import pl.sak.security.DatabaseCleaner;
 import pl.sak.security.SecurityApplication;
+import pl.sak.security.SqlStatementRecorder;
+import pl.sak.security.SqlStatementRecorder.RecordedStatements;
+import pl.sak.security.cache.UserCache;
 import pl.sak.security.exception.dto.ValidationErrorDto;
+import pl.sak.security.lockout.LoginAttemptTracker;
 import pl.sak.security.model.request.AuthenticationRequest;
 import pl.sak.security.model.request.ChangePasswordRequest;
 import pl.sak.security.model.request.RegisterRequest;
+import pl.sak.security.model.request.UserBatchRequest;
 import pl.sak.security.model.response.AuthenticationResponse;
 
 import java.util.List;
@@ -27,6 +34,7 @@ import java.util.List;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.springframework.http.HttpHeaders.AUTHORIZATION;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
@@ -41,17 +49,27 @@ class AuthenticationControllerIT {
     private final MockMvc postman;
     private final ObjectMapper objectMapper;
     private final DatabaseCleaner databaseCleaner;
+    private final SqlStatementRecorder sqlStatementRecorder;
+    private final UserCache userCache;
+    private final LoginAttemptTracker loginAttemptTracker;
 
     @Autowired
-    public AuthenticationControllerIT(MockMvc postman, ObjectMapper objectMapper, DatabaseCleaner databaseCleaner) {
+    public AuthenticationControllerIT(MockMvc postman, ObjectMapper objectMapper, DatabaseCleaner databaseCleaner,
+                                      SqlStatementRecorder sqlStatementRecorder, UserCache userCache,
+                                      LoginAttemptTracker loginAttemptTracker) {
         this.postman = postman;
         this.objectMapper = objectMapper;
         this.databaseCleaner = databaseCleaner;
+        this.sqlStatementRecorder = sqlStatementRecorder;
+        this.userCache = userCache;
+        this.loginAttemptTracker = loginAttemptTracker;
     }
 
     @AfterEach
     void tearDown() throws LiquibaseException {
         databaseCleaner.cleanUp();
+        userCache.evictAll();
+        loginAttemptTracker.recordSuccess("locked@example.com");
     }
 
     @Test
@@ -67,17 +85,40 @@ class AuthenticationControllerIT {
         String json = objectMapper.writeValueAsString(request);
 
         //When
-        MvcResult result = postman.perform(post("/auths/register")
+        MvcResult[] result = new MvcResult[1];
+        RecordedStatements statements = sqlStatementRecorder.record(() -> result[0] = perform(post("/auths/register")
                         .content(json)
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
-                .andReturn();
+                .andReturn());
 
-        String jsonContent = result.getResponse().getContentAsString();
+        String jsonContent = result[0].getResponse().getContentAsString();
         AuthenticationResponse response = objectMapper.readValue(jsonContent, AuthenticationResponse.class);
 
         //Then
         assertNotNull(response.getToken());
+        statements.assertCounts(1, 1, 0, 0);
+    }
+
+    @Test
+    void shouldRegisterUserWithBreachedPasswordWhenScreeningIsDisabled() throws Exception {
+        //Given
+        RegisterRequest request = RegisterRequest.builder()
+                .name("test")
+                .surname("test")
+                .email("test@example.com")
+                .password("password")
+                .build();
+
+        String json = objectMapper.writeValueAsString(request);
+
+        //When
+        //Then
+        perform(post("/auths/register")
+                        .content(json)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.token").exists());
     }
 
     @Test
@@ -91,17 +132,59 @@ class AuthenticationControllerIT {
         String json = objectMapper.writeValueAsString(request);
 
         //When
-        MvcResult result = postman.perform(post("/auths/authenticate")
+        MvcResult[] result = new MvcResult[1];
+        RecordedStatements statements = sqlStatementRecorder.record(() -> result[0] = perform(post("/auths/authenticate")
                         .content(json)
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
-                .andReturn();
+                .andReturn());
 
-        String jsonContent = result.getResponse().getContentAsString();
+        String jsonContent = result[0].getResponse().getContentAsString();
         AuthenticationResponse response = objectMapper.readValue(jsonContent, AuthenticationResponse.class);
 
         //Then
         assertNotNull(response.getToken());
+        statements.assertCounts(1, 0, 0, 0);
+    }
+
+    @Test
+    void shouldAnswerLockedAccountLikeBadCredentials() throws Exception {
+        //Given
+        String register = objectMapper.writeValueAsString(RegisterRequest.builder()
+                .name("test")
+                .surname("test")
+                .email("locked@example.com")
+                .password("test")
+                .build());
+        perform(post("/auths/register")
+                        .content(register)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+
+        String wrongPassword = objectMapper.writeValueAsString(AuthenticationRequest.builder()
+                .email("locked@example.com")
+                .password("wrong")
+                .build());
+        for (int i = 0; i < 5; i++) {
+            perform(post("/auths/authenticate")
+                            .content(wrongPassword)
+                            .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isUnauthorized())
+                    .andExpect(jsonPath("$.message").value("Bad credentials"));
+        }
+
+        String correctPassword = objectMapper.writeValueAsString(AuthenticationRequest.builder()
+                .email("locked@example.com")
+                .password("test")
+                .build());
+
+        //When
+        //Then
+        perform(post("/auths/authenticate")
+                        .content(correctPassword)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isUnauthorized())
+                .andExpect(jsonPath("$.message").value("Bad credentials"));
     }
 
     @Test
@@ -114,7 +197,7 @@ class AuthenticationControllerIT {
 
         String json = objectMapper.writeValueAsString(request);
 
-        MvcResult authenticate = postman.perform(post("/auths/authenticate")
+        MvcResult authenticate = perform(post("/auths/authenticate")
                 .content(json)
                 .contentType(MediaType.APPLICATION_JSON))
                 .andReturn();
@@ -134,12 +217,13 @@ class AuthenticationControllerIT {
         String jsonChangePassword = objectMapper.writeValueAsString(changePasswordRequest);
 
         //Then
-        postman.perform(patch("/auths/change-password")
+        RecordedStatements statements = sqlStatementRecorder.record(() -> perform(patch("/auths/change-password")
                         .header(AUTHORIZATION, token)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(jsonChangePassword))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.message").value("Password changed successfully."));
+                .andExpect(jsonPath("$.message").value("Password changed successfully.")));
+        statements.assertCounts(1, 0, 1, 0);
     }
 
     @Test
@@ -152,7 +236,7 @@ class AuthenticationControllerIT {
 
         String json = objectMapper.writeValueAsString(request);
 
-        MvcResult authenticate = postman.perform(post("/auths/authenticate")
+        MvcResult authenticate = perform(post("/auths/authenticate")
                         .content(json)
                         .contentType(MediaType.APPLICATION_JSON))
                 .andReturn();
@@ -172,7 +256,8 @@ class AuthenticationControllerIT {
         String jsonChangePassword = objectMapper.writeValueAsString(changePasswordRequest);
 
         //Then
-        String responseJson = postman.perform(patch("/auths/change-password")
+        String[] responseJson = new String[1];
+        RecordedStatements statements = sqlStatementRecorder.record(() -> responseJson[0] = perform(patch("/auths/change-password")
                         .header(AUTHORIZATION, token)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(jsonChangePassword))
@@ -181,11 +266,12 @@ class AuthenticationControllerIT {
                 .andExpect(jsonPath("$.[?(@.field == 'currentPassword' && @.code == 'CURRENT_PASSWORD_NOT_BLANK')]").exists())
                 .andReturn()
                 .getResponse()
-                .getContentAsString();
+                .getContentAsString());
 
-        List<ValidationErrorDto> errors = objectMapper.readValue(responseJson, new TypeReference<>() {
+        List<ValidationErrorDto> errors = objectMapper.readValue(responseJson[0], new TypeReference<>() {
         });
         assertEquals(1, errors.size());
+        statements.assertCounts(0, 0, 0, 0);
     }
 
     @Test
@@ -198,7 +284,7 @@ class AuthenticationControllerIT {
 
         String json = objectMapper.writeValueAsString(request);
 
-        MvcResult authenticate = postman.perform(post("/auths/authenticate")
+        MvcResult authenticate = perform(post("/auths/authenticate")
                         .content(json)
                         .contentType(MediaType.APPLICATION_JSON))
                 .andReturn();
@@ -218,7 +304,7 @@ class AuthenticationControllerIT {
         String jsonChangePassword = objectMapper.writeValueAsString(changePasswordRequest);
 
         //Then
-        String responseJson = postman.perform(patch("/auths/change-password")
+        String responseJson = perform(patch("/auths/change-password")
                         .header(AUTHORIZATION, token)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(jsonChangePassword))
@@ -244,7 +330,7 @@ class AuthenticationControllerIT {
 
         String json = objectMapper.writeValueAsString(request);
 
-        MvcResult authenticate = postman.perform(post("/auths/authenticate")
+        MvcResult authenticate = perform(post("/auths/authenticate")
                         .content(json)
                         .contentType(MediaType.APPLICATION_JSON))
                 .andReturn();
@@ -264,7 +350,7 @@ class AuthenticationControllerIT {
         String jsonChangePassword = objectMapper.writeValueAsString(changePasswordRequest);
 
         //Then
-        String responseJson = postman.perform(patch("/auths/change-password")
+        String responseJson = perform(patch("/auths/change-password")
                         .header(AUTHORIZATION, token)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(jsonChangePassword))
@@ -290,7 +376,7 @@ class AuthenticationControllerIT {
 
         String json = objectMapper.writeValueAsString(request);
 
-        MvcResult authenticate = postman.perform(post("/auths/authenticate")
+        MvcResult authenticate = perform(post("/auths/authenticate")
                         .content(json)
                         .contentType(MediaType.APPLICATION_JSON))
                 .andReturn();
@@ -310,7 +396,7 @@ class AuthenticationControllerIT {
         String jsonChangePassword = objectMapper.writeValueAsString(changePasswordRequest);
 
         //Then
-        postman.perform(patch("/auths/change-password")
+        RecordedStatements statements = sqlStatementRecorder.record(() -> perform(patch("/auths/change-password")
                         .header(AUTHORIZATION, token)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(jsonChangePassword))
@@ -320,7 +406,8 @@ class AuthenticationControllerIT {
                 .andExpect(jsonPath("$.status").value("Bad Request"))
                 .andExpect(jsonPath("$.message").value("Wrong password!"))
                 .andExpect(jsonPath("$.uri").value("/auths/change-password"))
-                .andExpect(jsonPath("$.method").value("PATCH"));
+                .andExpect(jsonPath("$.method").value("PATCH")));
+        statements.assertCounts(1, 0, 0, 0);
     }
 
     @Test
@@ -333,7 +420,7 @@ class AuthenticationControllerIT {
 
         String json = objectMapper.writeValueAsString(request);
 
-        MvcResult authenticate = postman.perform(post("/auths/authenticate")
+        MvcResult authenticate = perform(post("/auths/authenticate")
                         .content(json)
                         .contentType(MediaType.APPLICATION_JSON))
                 .andReturn();
@@ -353,7 +440,7 @@ class AuthenticationControllerIT {
         String jsonChangePassword = objectMapper.writeValueAsString(changePasswordRequest);
 
         //Then
-        postman.perform(patch("/auths/change-password")
+        perform(patch("/auths/change-password")
                         .header(AUTHORIZATION, token)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(jsonChangePassword))
@@ -365,4 +452,48 @@ class AuthenticationControllerIT {
                 .andExpect(jsonPath("$.uri").value("/auths/change-password"))
                 .andExpect(jsonPath("$.method").value("PATCH"));
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldLoadUserOnceForTokenAuthenticatedRequestWithColdCache() throws Exception {
+        //Given
+        AuthenticationRequest request = AuthenticationRequest.builder()
+                .email("b.bartek@example.com")
+                .password("admin")
+                .build();
+
+        String json = objectMapper.writeValueAsString(request);
+
+        MvcResult authenticate = perform(post("/auths/authenticate")
+                        .content(json)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andReturn();
+
+        String jsonContent = authenticate.getResponse().getContentAsString();
+        AuthenticationResponse response = objectMapper.readValue(jsonContent, AuthenticationResponse.class);
+
+        String token = "Bearer " + response.getToken();
+        userCache.evictAll();
+
+        String jsonBatch = objectMapper.writeValueAsString(UserBatchRequest.builder().build());
+
+        //When
+        RecordedStatements statements = sqlStatementRecorder.record(() -> perform(post("/users/batch")
+                        .header(AUTHORIZATION, token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(jsonBatch))
+                .andExpect(status().isOk()));
+
+        //Then
+        statements.assertCounts(1, 0, 0, 0);
+    }
+
+    /**
+     * Performs the request and, when the handler completed it asynchronously, the async dispatch that writes
+     * the response, so the same scenarios cover both web modes.
+     */
+    private ResultActions perform(RequestBuilder request) throws Exception {
+        ResultActions actions = postman.perform(request);
+        MvcResult result = actions.andReturn();
+        return result.getRequest().isAsyncStarted() ? postman.perform(asyncDispatch(result)) : actions;
+    }
+}
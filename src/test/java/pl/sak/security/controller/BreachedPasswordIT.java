@@ -0,0 +1,154 @@
+package pl.sak.security.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import liquibase.exception.LiquibaseException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
+import pl.sak.security.DatabaseCleaner;
+import pl.sak.security.SecurityApplication;
+import pl.sak.security.breach.BreachedPasswordIndexBuilder;
+import pl.sak.security.cache.UserCache;
+import pl.sak.security.model.request.AuthenticationRequest;
+import pl.sak.security.model.request.ChangePasswordRequest;
+import pl.sak.security.model.request.RegisterRequest;
+import pl.sak.security.model.response.AuthenticationResponse;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.springframework.http.HttpHeaders.AUTHORIZATION;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(classes = SecurityApplication.class)
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class BreachedPasswordIT {
+
+    // SHA-1 of "password" and "123456"
+    private static final List<String> BREACHED = List.of(
+            "5BAA61E4C9B93F3F0682250B6CF8331B7EE68FD8:9545824",
+            "7C4A8D09CA3762AF61E59520943DC26494F8941B:37359195");
+
+    private final MockMvc postman;
+    private final ObjectMapper objectMapper;
+    private final DatabaseCleaner databaseCleaner;
+    private final UserCache userCache;
+
+    @Autowired
+    public BreachedPasswordIT(MockMvc postman, ObjectMapper objectMapper, DatabaseCleaner databaseCleaner,
+                              UserCache userCache) {
+        this.postman = postman;
+        this.objectMapper = objectMapper;
+        this.databaseCleaner = databaseCleaner;
+        this.userCache = userCache;
+    }
+
+    @DynamicPropertySource
+    static void breachedPasswordIndex(DynamicPropertyRegistry registry) throws IOException {
+        Path directory = Files.createTempDirectory("security-breach-it");
+        Path index = directory.resolve("pwned.idx");
+        BreachedPasswordIndexBuilder.build(Files.write(directory.resolve("pwned.txt"), BREACHED), index, 1);
+        index.toFile().deleteOnExit();
+        registry.add("security.breached-passwords.index", index::toString);
+    }
+
+    @AfterEach
+    void tearDown() throws LiquibaseException {
+        databaseCleaner.cleanUp();
+        userCache.evictAll();
+    }
+
+    @Test
+    void shouldNotRegisterUserWithBreachedPassword() throws Exception {
+        //Given
+        String json = objectMapper.writeValueAsString(registerRequest("password"));
+
+        //When
+        //Then
+        perform(post("/auths/register")
+                .content(json)
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.[?(@.field == 'password' && @.code == 'PASSWORD_BREACHED')]").exists());
+    }
+
+    @Test
+    void shouldRegisterUserWithPasswordMissingFromIndex() throws Exception {
+        //Given
+        String json = objectMapper.writeValueAsString(registerRequest("correct horse battery staple"));
+
+        //When
+        //Then
+        perform(post("/auths/register")
+                .content(json)
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.token").exists());
+    }
+
+    @Test
+    void shouldNotChangePasswordToBreachedPassword() throws Exception {
+        //Given
+        String token = "Bearer " + authenticate();
+        String json = objectMapper.writeValueAsString(ChangePasswordRequest.builder()
+                .currentPassword("admin")
+                .newPassword("123456")
+                .confirmationPassword("123456")
+                .build());
+
+        //When
+        //Then
+        perform(patch("/auths/change-password")
+                .header(AUTHORIZATION, token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(json))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.[?(@.field == 'newPassword' && @.code == 'NEW_PASSWORD_BREACHED')]").exists());
+    }
+
+    private RegisterRequest registerRequest(String password) {
+        return RegisterRequest.builder()
+                .name("test")
+                .surname("test")
+                .email("breached@example.com")
+                .password(password)
+                .build();
+    }
+
+    private String authenticate() throws Exception {
+        String json = objectMapper.writeValueAsString(AuthenticationRequest.builder()
+                .email("b.bartek@example.com")
+                .password("admin")
+                .build());
+
+        MvcResult result = perform(post("/auths/authenticate")
+                .content(json)
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andReturn();
+        return objectMapper.readValue(result.getResponse().getContentAsString(), AuthenticationResponse.class).getToken();
+    }
+
+    private ResultActions perform(RequestBuilder request) throws Exception {
+        ResultActions actions = postman.perform(request);
+        MvcResult result = actions.andReturn();
+        return result.getRequest().isAsyncStarted() ? postman.perform(asyncDispatch(result)) : actions;
+    }
+}
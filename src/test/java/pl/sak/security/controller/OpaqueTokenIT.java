@@ -0,0 +1,187 @@
+package pl.sak.security.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import liquibase.exception.LiquibaseException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import pl.sak.security.DatabaseCleaner;
+import pl.sak.security.SecurityApplication;
+import pl.sak.security.cache.LocalUserInvalidationBus;
+import pl.sak.security.cache.UserCache;
+import pl.sak.security.model.request.AuthenticationRequest;
+import pl.sak.security.model.request.ChangePasswordRequest;
+import pl.sak.security.model.request.UserBatchRequest;
+import pl.sak.security.model.response.AuthenticationResponse;
+import pl.sak.security.session.OpaqueTokenService;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.http.HttpHeaders.AUTHORIZATION;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(classes = SecurityApplication.class, properties = {
+        "security.token.mode=opaque",
+        "security.token.opaque.capacity=1024"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class OpaqueTokenIT {
+
+    private final MockMvc postman;
+    private final ObjectMapper objectMapper;
+    private final DatabaseCleaner databaseCleaner;
+    private static final Path SESSION_FILE = Path.of(System.getProperty("java.io.tmpdir"),
+            "security-opaque-it-" + UUID.randomUUID() + ".dat");
+
+    private final UserCache userCache;
+
+    @Autowired
+    public OpaqueTokenIT(MockMvc postman, ObjectMapper objectMapper, DatabaseCleaner databaseCleaner,
+                         UserCache userCache) {
+        this.postman = postman;
+        this.objectMapper = objectMapper;
+        this.databaseCleaner = databaseCleaner;
+        this.userCache = userCache;
+    }
+
+    @DynamicPropertySource
+    static void sessionFile(DynamicPropertyRegistry registry) {
+        registry.add("security.token.opaque.file", SESSION_FILE::toString);
+    }
+
+    @AfterEach
+    void tearDown() throws LiquibaseException {
+        databaseCleaner.cleanUp();
+        userCache.evictAll();
+    }
+
+    @Test
+    void shouldIssueOpaqueTokenAcceptedByProtectedEndpoints() throws Exception {
+        //Given
+        String token = authenticate("admin");
+
+        //When
+        //Then
+        assertEquals(22, token.length() - "Bearer ".length());
+        batchLookup(token).andExpect(status().isOk());
+    }
+
+    @Test
+    void shouldRevokeTokenOnLogout() throws Exception {
+        //Given
+        String token = authenticate("admin");
+
+        //When
+        postman.perform(post("/auths/logout")
+                        .header(AUTHORIZATION, token))
+                .andExpect(status().isNoContent());
+
+        //Then
+        batchLookup(token).andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void shouldRevokeAllSessionsOfUserAfterPasswordChange() throws Exception {
+        //Given
+        String token = authenticate("admin");
+        String otherToken = authenticate("admin");
+        ChangePasswordRequest request = ChangePasswordRequest.builder()
+                .currentPassword("admin")
+                .newPassword("test")
+                .confirmationPassword("test")
+                .build();
+
+        //When
+        postman.perform(patch("/auths/change-password")
+                        .header(AUTHORIZATION, token)
+                        .content(objectMapper.writeValueAsString(request))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+
+        //Then
+        batchLookup(token).andExpect(status().isUnauthorized());
+        batchLookup(otherToken).andExpect(status().isUnauthorized());
+        batchLookup(authenticate("test")).andExpect(status().isOk());
+    }
+
+    @Test
+    void shouldKeepSessionsRevokedAfterRestart() throws Exception {
+        //Given
+        String token = authenticate("admin");
+        String otherToken = authenticate("admin");
+        ChangePasswordRequest request = ChangePasswordRequest.builder()
+                .currentPassword("admin")
+                .newPassword("test")
+                .confirmationPassword("test")
+                .build();
+        postman.perform(patch("/auths/change-password")
+                        .header(AUTHORIZATION, token)
+                        .content(objectMapper.writeValueAsString(request))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+        String newToken = authenticate("test");
+
+        //When
+        OpaqueTokenService restarted = new OpaqueTokenService(new LocalUserInvalidationBus(
+                new UserCache(Duration.ofMinutes(5), 16)), SESSION_FILE, 1024, 4096, Duration.ofMinutes(24), 4096);
+
+        //Then
+        try {
+            assertFalse(restarted.resolve(bare(token)).isPresent());
+            assertFalse(restarted.resolve(bare(otherToken)).isPresent());
+            assertTrue(restarted.resolve(bare(newToken)).isPresent());
+        } finally {
+            restarted.close();
+        }
+    }
+
+    private static String bare(String token) {
+        return token.substring("Bearer ".length());
+    }
+
+    private ResultActions batchLookup(String token) throws Exception {
+        UserBatchRequest request = UserBatchRequest.builder()
+                .ids(List.of(1L))
+                .build();
+
+        return postman.perform(post("/users/batch")
+                .header(AUTHORIZATION, token)
+                .content(objectMapper.writeValueAsString(request))
+                .contentType(MediaType.APPLICATION_JSON));
+    }
+
+    private String authenticate(String password) throws Exception {
+        AuthenticationRequest request = AuthenticationRequest.builder()
+                .email("b.bartek@example.com")
+                .password(password)
+                .build();
+
+        MvcResult authenticate = postman.perform(post("/auths/authenticate")
+                        .content(objectMapper.writeValueAsString(request))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        AuthenticationResponse response = objectMapper.readValue(authenticate.getResponse().getContentAsString(),
+                AuthenticationResponse.class);
+        return "Bearer " + response.getToken();
+    }
+}
@@ -0,0 +1,51 @@
+package pl.sak.security.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import pl.sak.security.DatabaseCleaner;
+import pl.sak.security.SqlStatementRecorder;
+import pl.sak.security.cache.UserCache;
+import pl.sak.security.lockout.LoginAttemptTracker;
+import pl.sak.security.model.request.AuthenticationRequest;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+/**
+ * Runs the {@link AuthenticationControllerIT} scenarios against {@code security.web.mode=reactive}.
+ */
+@TestPropertySource(properties = "security.web.mode=reactive")
+class ReactiveAuthenticationControllerIT extends AuthenticationControllerIT {
+
+    private final MockMvc postman;
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public ReactiveAuthenticationControllerIT(MockMvc postman, ObjectMapper objectMapper, DatabaseCleaner databaseCleaner,
+                                              SqlStatementRecorder sqlStatementRecorder, UserCache userCache,
+                                              LoginAttemptTracker loginAttemptTracker) {
+        super(postman, objectMapper, databaseCleaner, sqlStatementRecorder, userCache, loginAttemptTracker);
+        this.postman = postman;
+        this.objectMapper = objectMapper;
+    }
+
+    @Test
+    void shouldReleaseRequestThreadWhileHashing() throws Exception {
+        //Given
+        AuthenticationRequest request = AuthenticationRequest.builder()
+                .email("b.bartek@example.com")
+                .password("admin")
+                .build();
+
+        //When
+        //Then
+        postman.perform(post("/auths/authenticate")
+                        .content(objectMapper.writeValueAsString(request))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(request().asyncStarted());
+    }
+}
@@ -0,0 +1,142 @@
+package pl.sak.security.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import liquibase.exception.LiquibaseException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import pl.sak.security.DatabaseCleaner;
+import pl.sak.security.SecurityApplication;
+import pl.sak.security.cache.UserCache;
+import pl.sak.security.enums.UserRole;
+import pl.sak.security.model.request.AuthenticationRequest;
+import pl.sak.security.model.request.TokenBatchVerificationRequest;
+import pl.sak.security.model.request.TokenVerificationRequest;
+import pl.sak.security.model.response.AuthenticationResponse;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(classes = SecurityApplication.class)
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class TokenVerificationControllerIT {
+
+    private final MockMvc postman;
+    private final ObjectMapper objectMapper;
+    private final DatabaseCleaner databaseCleaner;
+    private final UserCache userCache;
+
+    @Autowired
+    public TokenVerificationControllerIT(MockMvc postman, ObjectMapper objectMapper, DatabaseCleaner databaseCleaner,
+                                         UserCache userCache) {
+        this.postman = postman;
+        this.objectMapper = objectMapper;
+        this.databaseCleaner = databaseCleaner;
+        this.userCache = userCache;
+    }
+
+    @AfterEach
+    void tearDown() throws LiquibaseException {
+        databaseCleaner.cleanUp();
+        userCache.evictAll();
+    }
+
+    @Test
+    void shouldVerifyIssuedToken() throws Exception {
+        //Given
+        TokenVerificationRequest request = TokenVerificationRequest.builder()
+                .token(authenticate())
+                .build();
+
+        //When
+        //Then
+        postman.perform(post("/tokens/verify")
+                        .content(objectMapper.writeValueAsString(request))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("VALID"))
+                .andExpect(jsonPath("$.email").value("b.bartek@example.com"))
+                .andExpect(jsonPath("$.permissions").value(UserRole.ADMIN.getPermissionMask()));
+    }
+
+    @Test
+    void shouldVerifyBatchInRequestOrder() throws Exception {
+        //Given
+        TokenBatchVerificationRequest request = TokenBatchVerificationRequest.builder()
+                .tokens(List.of(authenticate(), "not-a-token"))
+                .build();
+
+        //When
+        //Then
+        postman.perform(post("/tokens/verify/batch")
+                        .content(objectMapper.writeValueAsString(request))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results.length()").value(2))
+                .andExpect(jsonPath("$.results[0].status").value("VALID"))
+                .andExpect(jsonPath("$.results[1].status").value("INVALID"))
+                .andExpect(jsonPath("$.results[1].email").doesNotExist());
+    }
+
+    @Test
+    void shouldRejectBatchAboveLimit() throws Exception {
+        //Given
+        TokenBatchVerificationRequest request = TokenBatchVerificationRequest.builder()
+                .tokens(Collections.nCopies(TokenBatchVerificationRequest.MAX_TOKENS + 1, "token"))
+                .build();
+
+        //When
+        //Then
+        postman.perform(post("/tokens/verify/batch")
+                        .content(objectMapper.writeValueAsString(request))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.[?(@.field == 'tokens' && @.code == 'TOKENS_SIZE_EXCEEDED')]").exists());
+    }
+
+    @Test
+    void shouldRejectCallerOutsideMesh() throws Exception {
+        //Given
+        TokenVerificationRequest request = TokenVerificationRequest.builder()
+                .token("token")
+                .build();
+
+        //When
+        //Then
+        postman.perform(post("/tokens/verify")
+                        .with(outsideMesh -> {
+                            outsideMesh.setRemoteAddr("203.0.113.7");
+                            return outsideMesh;
+                        })
+                        .content(objectMapper.writeValueAsString(request))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isUnauthorized());
+    }
+
+    private String authenticate() throws Exception {
+        AuthenticationRequest request = AuthenticationRequest.builder()
+                .email("b.bartek@example.com")
+                .password("admin")
+                .build();
+
+        MvcResult authenticate = postman.perform(post("/auths/authenticate")
+                        .content(objectMapper.writeValueAsString(request))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        return objectMapper.readValue(authenticate.getResponse().getContentAsString(), AuthenticationResponse.class)
+                .getToken();
+    }
+}
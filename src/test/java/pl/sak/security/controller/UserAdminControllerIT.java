@@ -0,0 +1,161 @@
+package pl.sak.security.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import liquibase.exception.LiquibaseException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import pl.sak.security.DatabaseCleaner;
+import pl.sak.security.SecurityApplication;
+import pl.sak.security.cache.UserCache;
+import pl.sak.security.model.request.AuthenticationRequest;
+import pl.sak.security.model.response.AuthenticationResponse;
+import pl.sak.security.model.response.UserResponse;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.http.HttpHeaders.AUTHORIZATION;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(classes = SecurityApplication.class)
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class UserAdminControllerIT {
+
+    private final MockMvc postman;
+    private final ObjectMapper objectMapper;
+    private final DatabaseCleaner databaseCleaner;
+    private final UserCache userCache;
+
+    @Autowired
+    public UserAdminControllerIT(MockMvc postman, ObjectMapper objectMapper, DatabaseCleaner databaseCleaner,
+                                 UserCache userCache) {
+        this.postman = postman;
+        this.objectMapper = objectMapper;
+        this.databaseCleaner = databaseCleaner;
+        this.userCache = userCache;
+    }
+
+    @AfterEach
+    void tearDown() throws LiquibaseException {
+        databaseCleaner.cleanUp();
+        userCache.evictAll();
+    }
+
+    @Test
+    void shouldListUsersPageByPage() throws Exception {
+        //Given
+        String token = authenticate("b.bartek@example.com", "admin");
+
+        //When
+        MvcResult firstPage = postman.perform(get("/admin/users")
+                        .param("limit", "1")
+                        .header(AUTHORIZATION, token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.users.length()").value(1))
+                .andExpect(jsonPath("$.users[0].email").value("b.bartek@example.com"))
+                .andExpect(jsonPath("$.users[0].password").doesNotExist())
+                .andReturn();
+        long nextAfterId = objectMapper.readTree(firstPage.getResponse().getContentAsString()).get("nextAfterId").asLong();
+
+        //Then
+        postman.perform(get("/admin/users")
+                        .param("limit", "1")
+                        .param("afterId", String.valueOf(nextAfterId))
+                        .header(AUTHORIZATION, token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.users[0].email").value("k.kasia@example.com"));
+    }
+
+    @Test
+    void shouldFilterUsersByRole() throws Exception {
+        //Given
+        String token = authenticate("b.bartek@example.com", "admin");
+
+        //When
+        //Then
+        postman.perform(get("/admin/users")
+                        .param("role", "USER")
+                        .header(AUTHORIZATION, token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.users.length()").value(1))
+                .andExpect(jsonPath("$.users[0].email").value("k.kasia@example.com"))
+                .andExpect(jsonPath("$.nextAfterId").isEmpty());
+    }
+
+    @Test
+    void shouldExportUsersAsNdjson() throws Exception {
+        //Given
+        String token = authenticate("b.bartek@example.com", "admin");
+
+        MvcResult started = postman.perform(get("/admin/users/export")
+                        .header(AUTHORIZATION, token))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        assertEquals(Duration.ofMinutes(30).toMillis(), started.getRequest().getAsyncContext().getTimeout());
+
+        //When
+        String body = postman.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        //Then
+        List<String> emails = Arrays.stream(body.split("\n"))
+                .map(line -> readUser(line).getEmail())
+                .toList();
+        assertEquals(List.of("b.bartek@example.com", "k.kasia@example.com"), emails);
+    }
+
+    @Test
+    void shouldForbidUserAdministrationForNonAdmin() throws Exception {
+        //Given
+        String token = authenticate("k.kasia@example.com", "user");
+
+        //When
+        //Then
+        postman.perform(get("/admin/users")
+                        .header(AUTHORIZATION, token))
+                .andExpect(status().isForbidden());
+    }
+
+    private String authenticate(String email, String password) throws Exception {
+        AuthenticationRequest request = AuthenticationRequest.builder()
+                .email(email)
+                .password(password)
+                .build();
+
+        MvcResult authenticate = postman.perform(post("/auths/authenticate")
+                        .content(objectMapper.writeValueAsString(request))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        AuthenticationResponse response = objectMapper.readValue(authenticate.getResponse().getContentAsString(),
+                AuthenticationResponse.class);
+        return "Bearer " + response.getToken();
+    }
+
+    private UserResponse readUser(String line) {
+        try {
+            return objectMapper.readValue(line, UserResponse.class);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
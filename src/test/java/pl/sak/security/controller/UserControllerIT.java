@@ -0,0 +1,131 @@
+package pl.sak.security.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import liquibase.exception.LiquibaseException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import pl.sak.security.DatabaseCleaner;
+import pl.sak.security.SecurityApplication;
+import pl.sak.security.SqlStatementRecorder;
+import pl.sak.security.SqlStatementRecorder.RecordedStatements;
+import pl.sak.security.cache.UserCache;
+import pl.sak.security.model.request.AuthenticationRequest;
+import pl.sak.security.model.request.UserBatchRequest;
+import pl.sak.security.model.response.AuthenticationResponse;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.springframework.http.HttpHeaders.AUTHORIZATION;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(classes = SecurityApplication.class)
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class UserControllerIT {
+
+    private final MockMvc postman;
+    private final ObjectMapper objectMapper;
+    private final DatabaseCleaner databaseCleaner;
+    private final SqlStatementRecorder sqlStatementRecorder;
+    private final UserCache userCache;
+
+    @Autowired
+    public UserControllerIT(MockMvc postman, ObjectMapper objectMapper, DatabaseCleaner databaseCleaner,
+                            SqlStatementRecorder sqlStatementRecorder, UserCache userCache) {
+        this.postman = postman;
+        this.objectMapper = objectMapper;
+        this.databaseCleaner = databaseCleaner;
+        this.sqlStatementRecorder = sqlStatementRecorder;
+        this.userCache = userCache;
+    }
+
+    @AfterEach
+    void tearDown() throws LiquibaseException {
+        databaseCleaner.cleanUp();
+        userCache.evictAll();
+    }
+
+    @Test
+    void shouldFindProfilesByIdsAndEmailsWithSingleQuery() throws Exception {
+        //Given
+        String token = authenticate();
+        UserBatchRequest request = UserBatchRequest.builder()
+                .ids(List.of(1L, 999L))
+                .emails(List.of("k.kasia@example.com", "b.bartek@example.com", "missing@example.com"))
+                .build();
+
+        //When
+        RecordedStatements statements = sqlStatementRecorder.record(() -> postman.perform(post("/users/batch")
+                        .header(AUTHORIZATION, token)
+                        .content(objectMapper.writeValueAsString(request))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.users.length()").value(2))
+                .andExpect(jsonPath("$.users[?(@.email == 'k.kasia@example.com')].name").value("kasia"))
+                .andExpect(jsonPath("$.users[?(@.email == 'k.kasia@example.com')].userRole").value("USER"))
+                .andExpect(jsonPath("$.users[0].password").doesNotExist()));
+
+        //Then
+        statements.assertCounts(1, 0, 0, 0);
+    }
+
+    @Test
+    void shouldRejectBatchAboveLimit() throws Exception {
+        //Given
+        String token = authenticate();
+        UserBatchRequest request = UserBatchRequest.builder()
+                .ids(Collections.nCopies(UserBatchRequest.MAX_USERS + 1, 1L))
+                .build();
+
+        //When
+        //Then
+        postman.perform(post("/users/batch")
+                        .header(AUTHORIZATION, token)
+                        .content(objectMapper.writeValueAsString(request))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.[?(@.field == 'ids' && @.code == 'IDS_SIZE_EXCEEDED')]").exists());
+    }
+
+    @Test
+    void shouldRequireAuthenticationForBatchLookup() throws Exception {
+        //Given
+        UserBatchRequest request = UserBatchRequest.builder()
+                .ids(List.of(1L))
+                .build();
+
+        //When
+        //Then
+        postman.perform(post("/users/batch")
+                        .content(objectMapper.writeValueAsString(request))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isUnauthorized());
+    }
+
+    private String authenticate() throws Exception {
+        AuthenticationRequest request = AuthenticationRequest.builder()
+                .email("b.bartek@example.com")
+                .password("admin")
+                .build();
+
+        MvcResult authenticate = postman.perform(post("/auths/authenticate")
+                        .content(objectMapper.writeValueAsString(request))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        AuthenticationResponse response = objectMapper.readValue(authenticate.getResponse().getContentAsString(),
+                AuthenticationResponse.class);
+        return "Bearer " + response.getToken();
+    }
+}
@@ -0,0 +1,70 @@
+package pl.sak.security.jfr;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+import pl.sak.security.model.User;
+import pl.sak.security.service.JwtTokenService;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static pl.sak.security.enums.UserRole.USER;
+
+class SecurityJfrEventsTest {
+
+    private static final String SECRET = "AvHGRK8C0ia4uOuxxqPD5DTbWC9F9TWvPStp3pb7ARo0oK2mJ3pd3YG4lxA9i8bj6OTbadweheufHNyG";
+
+    private JwtTokenService jwtTokenService;
+    private PasswordEncoder passwordEncoder;
+
+    @BeforeEach
+    void setUp() {
+        jwtTokenService = new JwtTokenService();
+        ReflectionTestUtils.setField(jwtTokenService, "secretKey", SECRET);
+        passwordEncoder = new JfrPasswordEncoder(new BCryptPasswordEncoder(4));
+    }
+
+    @Test
+    void shouldEmitEventsForTokenAndPasswordOperations() throws Exception {
+        //Given
+        User user = User.builder().email("test@example.com").userRole(USER).build();
+        Path dump = Files.createTempFile("security", ".jfr");
+
+        //When
+        try (Recording recording = new Recording()) {
+            List.of("pl.sak.security.TokenIssue", "pl.sak.security.TokenParse",
+                            "pl.sak.security.TokenValidation", "pl.sak.security.PasswordHash")
+                    .forEach(name -> recording.enable(name).withThreshold(null));
+            recording.start();
+            String token = jwtTokenService.generateToken(user);
+            jwtTokenService.isTokenValid(token, user);
+            passwordEncoder.matches("test", passwordEncoder.encode("test"));
+            recording.stop();
+            recording.dump(dump);
+        }
+
+        //Then
+        List<RecordedEvent> events = RecordingFile.readAllEvents(dump);
+        Set<String> names = events.stream()
+                .map(event -> event.getEventType().getName())
+                .collect(Collectors.toSet());
+        assertTrue(names.containsAll(Set.of("pl.sak.security.TokenIssue", "pl.sak.security.TokenParse",
+                "pl.sak.security.TokenValidation", "pl.sak.security.PasswordHash")));
+        assertEquals(2, events.stream().filter(event -> event.getEventType().getName().equals("pl.sak.security.PasswordHash")).count());
+        assertTrue(events.stream()
+                .filter(event -> event.getEventType().getName().equals("pl.sak.security.TokenValidation"))
+                .allMatch(event -> event.getBoolean("valid")));
+        Files.delete(dump);
+    }
+}
@@ -0,0 +1,102 @@
+package pl.sak.security.limiter;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Deterministic discrete-event simulation of a server with a fixed number of workers and a FIFO backlog,
+ * offered three times the load it can serve. Clients give up after {@link #CLIENT_TIMEOUT_MICROS}, so only
+ * responses faster than that count as goodput.
+ */
+class ConcurrencyLimiterSimulationTest {
+
+    private static final int WORKERS = 4;
+    private static final long SERVICE_TIME_MICROS = 10_000;
+    private static final long ARRIVAL_INTERVAL_MICROS = SERVICE_TIME_MICROS / WORKERS / 3;
+    private static final long CLIENT_TIMEOUT_MICROS = 200_000;
+    private static final long DURATION_MICROS = 10_000_000;
+    private static final long CAPACITY = DURATION_MICROS / SERVICE_TIME_MICROS * WORKERS;
+
+    @Test
+    void shouldCollapseGoodputWithoutLimiter() {
+        //When
+        SimulationResult result = simulate(null);
+
+        //Then
+        assertTrue(result.goodput() < CAPACITY / 10, "goodput " + result.goodput());
+        assertEquals(0, result.rejected());
+    }
+
+    @Test
+    void shouldKeepGoodputNearCapacityWithLimiter() {
+        //Given
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter("simulation", 50, 1, 500, 0.2, 0.9);
+
+        //When
+        SimulationResult result = simulate(limiter);
+
+        //Then
+        assertTrue(result.goodput() > CAPACITY * 9 / 10, "goodput " + result.goodput());
+        assertTrue(result.rejected() > 0);
+        assertTrue(result.lateCompletions() < result.goodput() / 100, "late " + result.lateCompletions());
+        assertTrue(limiter.getLimit() <= WORKERS * 4, "limit " + limiter.getLimit());
+    }
+
+    @Test
+    void shouldNotLimitBelowCapacityWhenUnderloaded() {
+        //Given
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter("simulation", 2, 1, 500, 0.2, 0.9);
+
+        //When
+        SimulationResult result = simulate(limiter, SERVICE_TIME_MICROS / WORKERS * 2);
+
+        //Then
+        assertTrue(result.rejected() < result.goodput() / 100, "rejected " + result.rejected());
+    }
+
+    private SimulationResult simulate(ConcurrencyLimiter limiter) {
+        return simulate(limiter, ARRIVAL_INTERVAL_MICROS);
+    }
+
+    private SimulationResult simulate(ConcurrencyLimiter limiter, long arrivalInterval) {
+        PriorityQueue<Long> workerFreeAt = new PriorityQueue<>();
+        for (int i = 0; i < WORKERS; i++) {
+            workerFreeAt.add(0L);
+        }
+        PriorityQueue<long[]> completions = new PriorityQueue<>((a, b) -> Long.compare(a[0], b[0]));
+        long goodput = 0;
+        long late = 0;
+        long rejected = 0;
+        for (long now = 0; now < DURATION_MICROS; now += arrivalInterval) {
+            while (!completions.isEmpty() && completions.peek()[0] <= now) {
+                long[] completion = completions.poll();
+                long latency = completion[0] - completion[1];
+                if (limiter != null) {
+                    limiter.release(TimeUnit.MICROSECONDS.toNanos(latency), false);
+                }
+                if (latency <= CLIENT_TIMEOUT_MICROS) {
+                    goodput++;
+                } else {
+                    late++;
+                }
+            }
+            if (limiter != null && !limiter.tryAcquire()) {
+                rejected++;
+                continue;
+            }
+            long start = Math.max(now, workerFreeAt.poll());
+            long end = start + SERVICE_TIME_MICROS;
+            workerFreeAt.add(end);
+            completions.add(new long[]{end, now});
+        }
+        return new SimulationResult(goodput, late, rejected);
+    }
+
+    private record SimulationResult(long goodput, long lateCompletions, long rejected) {
+    }
+}
@@ -0,0 +1,28 @@
+package pl.sak.security.load;
+
+import java.util.Arrays;
+
+enum LoadOperation {
+
+    REGISTER("register"),
+    AUTHENTICATE("authenticate"),
+    CHANGE_PASSWORD("change-password"),
+    PROTECTED("protected");
+
+    private final String name;
+
+    LoadOperation(String name) {
+        this.name = name;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    static LoadOperation fromName(String name) {
+        return Arrays.stream(values())
+                .filter(operation -> operation.name.equals(name))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown load operation: " + name));
+    }
+}
@@ -0,0 +1,89 @@
+package pl.sak.security.load;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Prints each step and writes the run to {@code <output>/<label>}: {@code summary.csv} with one row per step
+ * and operation, {@code result.properties} with the highest rate that met the p99 target, and the full
+ * HdrHistogram percentile distribution of every step and operation for side-by-side comparison of builds.
+ */
+class LoadReport {
+
+    private static final String HEADER = "rate,operation,count,errors,throughput,p50_ms,p90_ms,p99_ms,p999_ms,max_ms";
+
+    private final LoadSettings settings;
+    private final Path directory;
+    private final List<String> rows = new ArrayList<>(List.of(HEADER));
+
+    LoadReport(LoadSettings settings) throws IOException {
+        this.settings = settings;
+        this.directory = settings.output().resolve(settings.label());
+        Files.createDirectories(directory);
+    }
+
+    void add(StepResult step) throws IOException {
+        System.out.printf(Locale.ROOT, "%n--- %.0f req/s for %.1f s ---%n", step.rate(), step.seconds());
+        System.out.printf(Locale.ROOT, "%-16s %8s %7s %9s %9s %9s %9s %9s %9s%n",
+                "operation", "count", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        Path stepDirectory = directory.resolve("rate-%.0f".formatted(step.rate()));
+        Files.createDirectories(stepDirectory);
+        for (Map.Entry<LoadOperation, Histogram> entry : step.histograms().entrySet()) {
+            if (entry.getValue().getTotalCount() > 0) {
+                row(step, entry.getKey().getName(), entry.getValue(), step.errors().get(entry.getKey()));
+                write(stepDirectory.resolve(entry.getKey().getName() + ".hgrm"), entry.getValue());
+            }
+        }
+        row(step, "total", step.total(), step.totalErrors());
+        write(stepDirectory.resolve("total.hgrm"), step.total());
+        if (step.skipped() > 0) {
+            System.out.printf(Locale.ROOT, "skipped %d password changes: no idle account%n", step.skipped());
+        }
+    }
+
+    void finish(Double sustainedRate) throws IOException {
+        Files.write(directory.resolve("summary.csv"), rows);
+        String sustained = sustainedRate == null ? "none" : "%.0f".formatted(sustainedRate);
+        Files.write(directory.resolve("result.properties"), List.of(
+                "label=" + settings.label(),
+                "mix=" + settings.mix(),
+                "target-p99-ms=" + settings.targetP99().toMillis(),
+                "max-error-rate=" + settings.maxErrorRate(),
+                "step-seconds=" + settings.stepDuration().toSeconds(),
+                "sustained-rate=" + sustained));
+        System.out.printf("%nHighest rate meeting p99 <= %d ms: %s req/s (results in %s)%n",
+                settings.targetP99().toMillis(), sustained, directory.toAbsolutePath());
+    }
+
+    private void row(StepResult step, String operation, Histogram histogram, long errors) {
+        long count = histogram.getTotalCount();
+        double throughput = (count - errors) / step.seconds();
+        double p50 = millis(histogram, 50);
+        double p90 = millis(histogram, 90);
+        double p99 = millis(histogram, 99);
+        double p999 = millis(histogram, 99.9);
+        double max = histogram.getMaxValue() / 1000.0;
+        System.out.printf(Locale.ROOT, "%-16s %8d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                operation, count, errors, throughput, p50, p90, p99, p999, max);
+        rows.add(String.format(Locale.ROOT, "%.0f,%s,%d,%d,%.1f,%.2f,%.2f,%.2f,%.2f,%.2f",
+                step.rate(), operation, count, errors, throughput, p50, p90, p99, p999, max));
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    private static void write(Path file, Histogram histogram) throws IOException {
+        try (PrintStream stream = new PrintStream(Files.newOutputStream(file))) {
+            histogram.outputPercentileDistribution(stream, 1000.0);
+        }
+    }
+}
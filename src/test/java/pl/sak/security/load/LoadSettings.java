@@ -0,0 +1,62 @@
+package pl.sak.security.load;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Load run parameters, read from {@code load.*} system properties so runs can be scripted and repeated.
+ */
+record LoadSettings(String label,
+                    Map<LoadOperation, Integer> mix,
+                    double startRate,
+                    double rateStep,
+                    double maxRate,
+                    Duration warmUp,
+                    Duration stepDuration,
+                    Duration targetP99,
+                    double maxErrorRate,
+                    int accounts,
+                    long seed,
+                    Path output) {
+
+    static LoadSettings fromSystemProperties() {
+        return new LoadSettings(
+                property("load.label", "local"),
+                parseMix(property("load.mix", "register:5,authenticate:20,change-password:5,protected:70")),
+                Double.parseDouble(property("load.start-rate", "20")),
+                Double.parseDouble(property("load.rate-step", "20")),
+                Double.parseDouble(property("load.max-rate", "2000")),
+                Duration.ofSeconds(Long.parseLong(property("load.warm-up-seconds", "15"))),
+                Duration.ofSeconds(Long.parseLong(property("load.step-seconds", "30"))),
+                Duration.ofMillis(Long.parseLong(property("load.target-p99-ms", "100"))),
+                Double.parseDouble(property("load.max-error-rate", "0.01")),
+                Integer.parseInt(property("load.accounts", "200")),
+                Long.parseLong(property("load.seed", "42")),
+                Path.of(property("load.output", "target/load-test")));
+    }
+
+    /**
+     * Parses {@code operation:weight} pairs, e.g. {@code authenticate:20,protected:80}.
+     */
+    static Map<LoadOperation, Integer> parseMix(String mix) {
+        Map<LoadOperation, Integer> weights = new EnumMap<>(LoadOperation.class);
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split(":");
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight > 0) {
+                weights.put(LoadOperation.fromName(parts[0].trim()), weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("Empty load mix: " + mix);
+        }
+        return weights;
+    }
+
+    private static String property(String name, String defaultValue) {
+        String value = System.getProperty(name);
+        return value == null || value.isBlank() ? defaultValue : value;
+    }
+}
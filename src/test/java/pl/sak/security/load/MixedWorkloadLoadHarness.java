@@ -0,0 +1,85 @@
+package pl.sak.security.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import pl.sak.security.SecurityApplication;
+
+import java.net.URI;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Boots the service on a random port and steps an open-model request mix up from {@code load.start-rate} until
+ * the p99 over all operations exceeds {@code load.target-p99-ms}, the error rate exceeds
+ * {@code load.max-error-rate} or {@code load.max-rate} is reached. The service runs against H2 unless
+ * {@code load.datasource.url} points at Postgres, whose schema is dropped and migrated first, so use a scratch
+ * database. Run with {@code mvn test -Pload} or
+ * {@code scripts/load/run-load-test.sh}; see {@link LoadSettings} for the other {@code load.*} properties.
+ */
+@SpringBootTest(classes = SecurityApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "spring.jpa.show-sql=false",
+                "spring.h2.console.enabled=false",
+                "logging.level.root=WARN"
+        })
+@ActiveProfiles("test")
+class MixedWorkloadLoadHarness {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        String url = System.getProperty("load.datasource.url");
+        if (url == null || url.isBlank()) {
+            return;
+        }
+        registry.add("spring.datasource.url", () -> url);
+        registry.add("spring.datasource.username", () -> System.getProperty("load.datasource.username", "postgres"));
+        registry.add("spring.datasource.password", () -> System.getProperty("load.datasource.password", ""));
+        registry.add("spring.datasource.driverClassName", () -> "org.postgresql.Driver");
+        registry.add("spring.jpa.database-platform", () -> "org.hibernate.dialect.PostgreSQLDialect");
+        registry.add("spring.liquibase.change-log", () -> "classpath:liquibase-security-changelog.xml");
+    }
+
+    @Test
+    void shouldFindHighestRateMeetingTargetP99() throws Exception {
+        //Given
+        LoadSettings settings = LoadSettings.fromSystemProperties();
+        LoadReport report = new LoadReport(settings);
+
+        try (OpenModelLoadGenerator generator = new OpenModelLoadGenerator(URI.create("http://localhost:" + port),
+                objectMapper, settings.mix(), settings.seed())) {
+            generator.prepareAccounts(settings.accounts());
+            generator.run(settings.startRate(), settings.warmUp());
+
+            //When
+            Double sustainedRate = null;
+            StepResult step;
+            boolean met;
+            double rate = settings.startRate();
+            do {
+                step = generator.run(rate, settings.stepDuration());
+                report.add(step);
+                met = step.meets(settings.targetP99(), settings.maxErrorRate());
+                if (met) {
+                    sustainedRate = rate;
+                }
+                rate += settings.rateStep();
+            } while (met && rate <= settings.maxRate());
+
+            //Then
+            report.finish(sustainedRate);
+            assertFalse(step.histograms().isEmpty());
+        }
+    }
+}
@@ -0,0 +1,258 @@
+package pl.sak.security.load;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import pl.sak.security.model.request.AuthenticationRequest;
+import pl.sak.security.model.request.ChangePasswordRequest;
+import pl.sak.security.model.request.RegisterRequest;
+import pl.sak.security.model.request.UserBatchRequest;
+import pl.sak.security.model.response.AuthenticationResponse;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.springframework.http.HttpHeaders.AUTHORIZATION;
+import static org.springframework.http.HttpHeaders.CONTENT_TYPE;
+import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
+
+/**
+ * Open-model load generator: requests are started on a fixed arrival schedule regardless of how many are still
+ * in flight, and each latency is measured from the request's scheduled start rather than its actual send time.
+ * A server that falls behind therefore shows up as growing latency instead of a silently reduced request rate
+ * (coordinated omission).
+ */
+class OpenModelLoadGenerator implements AutoCloseable {
+
+    private static final String BATCH_PASSWORD = "Load-Harness-%d-a";
+    private static final String ALTERNATE_PASSWORD = "Load-Harness-%d-b";
+    private static final long HIGHEST_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(1);
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final URI baseUri;
+    private final ObjectMapper objectMapper;
+    private final ExecutorService executor = Executors.newFixedThreadPool(8);
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .executor(executor)
+            .build();
+    private final SplittableRandom random;
+    private final LoadOperation[] schedule;
+    private final List<Account> accounts = new ArrayList<>();
+    private final Queue<Account> idlePasswordChangeAccounts = new ConcurrentLinkedQueue<>();
+    private final AtomicLong registrations = new AtomicLong();
+    private final long runId = System.currentTimeMillis();
+
+    OpenModelLoadGenerator(URI baseUri, ObjectMapper objectMapper, Map<LoadOperation, Integer> mix, long seed) {
+        this.baseUri = baseUri;
+        this.objectMapper = objectMapper;
+        this.random = new SplittableRandom(seed);
+        this.schedule = mix.entrySet().stream()
+                .flatMap(entry -> Collections.nCopies(entry.getValue(), entry.getKey()).stream())
+                .toArray(LoadOperation[]::new);
+    }
+
+    /**
+     * Registers the accounts used by authenticate, change-password and protected calls. Half of them are
+     * reserved for password changes, so a password is never changed by two requests at once.
+     */
+    void prepareAccounts(int count) throws IOException, InterruptedException {
+        for (int i = 0; i < count; i++) {
+            Account account = new Account("load-" + runId + "-account-" + i + "@load.zuber.invalid",
+                    BATCH_PASSWORD.formatted(i), ALTERNATE_PASSWORD.formatted(i));
+            HttpResponse<String> response = client.send(register(account.email, account.password),
+                    HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("Could not register " + account.email + ": " + response.body());
+            }
+            account.token = objectMapper.readValue(response.body(), AuthenticationResponse.class).getToken();
+            if (i % 2 == 0) {
+                accounts.add(account);
+            } else {
+                idlePasswordChangeAccounts.add(account);
+            }
+        }
+    }
+
+    /**
+     * Drives the mix at {@code rate} requests per second for {@code duration}, then waits for every started
+     * request to finish. Password changes that find no idle account are skipped and only counted.
+     */
+    StepResult run(double rate, Duration duration) throws InterruptedException {
+        Map<LoadOperation, Recorder> recorders = new EnumMap<>(LoadOperation.class);
+        Map<LoadOperation, LongAdder> errors = new EnumMap<>(LoadOperation.class);
+        for (LoadOperation operation : LoadOperation.values()) {
+            recorders.put(operation, new Recorder(HIGHEST_LATENCY_MICROS, 3));
+            errors.put(operation, new LongAdder());
+        }
+        LongAdder skipped = new LongAdder();
+        AtomicInteger inFlight = new AtomicInteger();
+        long interval = (long) (TimeUnit.SECONDS.toNanos(1) / rate);
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        for (long scheduled = start; scheduled < end; scheduled += interval) {
+            long wait = scheduled - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            LoadOperation operation = schedule[random.nextInt(schedule.length)];
+            long scheduledAt = scheduled;
+            CompletableFuture<Boolean> request = send(operation);
+            if (request == null) {
+                skipped.increment();
+                continue;
+            }
+            inFlight.incrementAndGet();
+            request.whenComplete((success, failure) -> {
+                long latency = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - scheduledAt);
+                recorders.get(operation).recordValue(Math.min(latency, HIGHEST_LATENCY_MICROS));
+                if (failure != null || !success) {
+                    errors.get(operation).increment();
+                }
+                inFlight.decrementAndGet();
+            });
+        }
+        long drainDeadline = System.nanoTime() + REQUEST_TIMEOUT.toNanos();
+        while (inFlight.get() > 0 && System.nanoTime() < drainDeadline) {
+            Thread.sleep(10);
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        Map<LoadOperation, Histogram> histograms = new EnumMap<>(LoadOperation.class);
+        Map<LoadOperation, Long> errorCounts = new EnumMap<>(LoadOperation.class);
+        for (LoadOperation operation : LoadOperation.values()) {
+            histograms.put(operation, recorders.get(operation).getIntervalHistogram());
+            errorCounts.put(operation, errors.get(operation).sum());
+        }
+        return new StepResult(rate, seconds, histograms, errorCounts, skipped.sum());
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    private CompletableFuture<Boolean> send(LoadOperation operation) {
+        try {
+            return switch (operation) {
+                case REGISTER -> exchange(register("load-" + runId + "-" + registrations.incrementAndGet()
+                        + "@load.zuber.invalid", BATCH_PASSWORD.formatted(-1)));
+                case AUTHENTICATE -> authenticate(randomAccount());
+                case CHANGE_PASSWORD -> changePassword();
+                case PROTECTED -> protectedCall(randomAccount());
+            };
+        } catch (JsonProcessingException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private CompletableFuture<Boolean> authenticate(Account account) throws JsonProcessingException {
+        AuthenticationRequest request = AuthenticationRequest.builder()
+                .email(account.email)
+                .password(account.password)
+                .build();
+        return exchange(post("/auths/authenticate", request).build());
+    }
+
+    /**
+     * Returns {@code null} without sending anything when every reserved account already has a change in flight;
+     * the slot is counted as skipped rather than as a failed request with no latency.
+     */
+    private CompletableFuture<Boolean> changePassword() throws JsonProcessingException {
+        Account account = idlePasswordChangeAccounts.poll();
+        if (account == null) {
+            return null;
+        }
+        String newPassword = account.password.equals(account.firstPassword) ? account.secondPassword : account.firstPassword;
+        ChangePasswordRequest request = ChangePasswordRequest.builder()
+                .currentPassword(account.password)
+                .newPassword(newPassword)
+                .confirmationPassword(newPassword)
+                .build();
+        HttpRequest httpRequest = json(HttpRequest.newBuilder(baseUri.resolve("/auths/change-password")), request, "PATCH")
+                .header(AUTHORIZATION, "Bearer " + account.token)
+                .build();
+        return exchange(httpRequest).whenComplete((success, failure) -> {
+            if (failure == null && success) {
+                account.password = newPassword;
+            }
+            idlePasswordChangeAccounts.add(account);
+        });
+    }
+
+    private CompletableFuture<Boolean> protectedCall(Account account) throws JsonProcessingException {
+        UserBatchRequest request = UserBatchRequest.builder()
+                .emails(List.of(account.email))
+                .build();
+        return exchange(post("/users/batch", request)
+                .header(AUTHORIZATION, "Bearer " + account.token)
+                .build());
+    }
+
+    private HttpRequest register(String email, String password) throws JsonProcessingException {
+        RegisterRequest request = RegisterRequest.builder()
+                .name("load")
+                .surname("harness")
+                .email(email)
+                .password(password)
+                .build();
+        return post("/auths/register", request).build();
+    }
+
+    private HttpRequest.Builder post(String path, Object body) throws JsonProcessingException {
+        return json(HttpRequest.newBuilder(baseUri.resolve(path)), body, "POST");
+    }
+
+    private HttpRequest.Builder json(HttpRequest.Builder builder, Object body, String method) throws JsonProcessingException {
+        return builder
+                .timeout(REQUEST_TIMEOUT)
+                .header(CONTENT_TYPE, APPLICATION_JSON_VALUE)
+                .method(method, HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)));
+    }
+
+    private CompletableFuture<Boolean> exchange(HttpRequest request) {
+        return client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .thenApply(response -> response.statusCode() / 100 == 2);
+    }
+
+    private Account randomAccount() {
+        return accounts.get(random.nextInt(accounts.size()));
+    }
+
+    private static final class Account {
+
+        private final String email;
+        private final String firstPassword;
+        private final String secondPassword;
+        private volatile String password;
+        private volatile String token;
+
+        private Account(String email, String firstPassword, String secondPassword) {
+            this.email = email;
+            this.firstPassword = firstPassword;
+            this.secondPassword = secondPassword;
+            this.password = firstPassword;
+        }
+    }
+}
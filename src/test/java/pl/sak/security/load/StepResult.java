@@ -0,0 +1,31 @@
+package pl.sak.security.load;
+
+import org.HdrHistogram.Histogram;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Latencies in microseconds and error counts of one fixed-rate step, per operation, plus the number of scheduled
+ * password changes skipped because no account was free.
+ */
+record StepResult(double rate, double seconds, Map<LoadOperation, Histogram> histograms, Map<LoadOperation, Long> errors,
+                  long skipped) {
+
+    Histogram total() {
+        Histogram total = new Histogram(3);
+        histograms.values().forEach(total::add);
+        return total;
+    }
+
+    long totalErrors() {
+        return errors.values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    boolean meets(Duration targetP99, double maxErrorRate) {
+        Histogram total = total();
+        return total.getTotalCount() > 0
+                && total.getValueAtPercentile(99) <= targetP99.toNanos() / 1000
+                && totalErrors() <= maxErrorRate * total.getTotalCount();
+    }
+}
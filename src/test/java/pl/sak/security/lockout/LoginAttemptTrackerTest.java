@@ -0,0 +1,89 @@
+package pl.sak.security.lockout;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class LoginAttemptTrackerTest {
+
+    @Mock
+    private AccountLockWriter accountLockWriter;
+
+    private SimpleMeterRegistry meterRegistry;
+    private LoginAttemptTracker loginAttemptTracker;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        loginAttemptTracker = new LoginAttemptTracker(accountLockWriter, meterRegistry,
+                3, Duration.ofMinutes(15), Duration.ofMinutes(15), 2);
+    }
+
+    @Test
+    void shouldLockAccountAfterMaxFailedAttempts() {
+        //When
+        for (int i = 0; i < 3; i++) {
+            loginAttemptTracker.recordFailure("test@example.com");
+        }
+
+        //Then
+        assertTrue(loginAttemptTracker.isLocked("test@example.com"));
+        verify(accountLockWriter, times(1)).lock(eq("test@example.com"), anyLong());
+    }
+
+    @Test
+    void shouldNotLockAccountBelowMaxFailedAttempts() {
+        //When
+        loginAttemptTracker.recordFailure("test@example.com");
+        loginAttemptTracker.recordFailure("test@example.com");
+
+        //Then
+        assertFalse(loginAttemptTracker.isLocked("test@example.com"));
+        verify(accountLockWriter, never()).lock(eq("test@example.com"), anyLong());
+    }
+
+    @Test
+    void shouldResetFailedAttemptsAfterSuccessfulLogin() {
+        //Given
+        loginAttemptTracker.recordFailure("test@example.com");
+        loginAttemptTracker.recordFailure("test@example.com");
+
+        //When
+        loginAttemptTracker.recordSuccess("test@example.com");
+        loginAttemptTracker.recordFailure("test@example.com");
+
+        //Then
+        assertFalse(loginAttemptTracker.isLocked("test@example.com"));
+    }
+
+    @Test
+    void shouldCapTrackedEmailsAndKeepLockedOnes() {
+        //Given
+        for (int i = 0; i < 3; i++) {
+            loginAttemptTracker.recordFailure("locked@example.com");
+        }
+
+        //When
+        loginAttemptTracker.recordFailure("first@example.com");
+        loginAttemptTracker.recordFailure("second@example.com");
+        loginAttemptTracker.recordFailure("third@example.com");
+
+        //Then
+        assertEquals(2, meterRegistry.get("security.lockout.tracked").gauge().value());
+        assertTrue(loginAttemptTracker.isLocked("locked@example.com"));
+    }
+}
@@ -0,0 +1,110 @@
+package pl.sak.security.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CategorySamplingFilterTest {
+
+    private final LoggerContext loggerContext = new LoggerContext();
+    private CategorySamplingFilter filter;
+    private CategorySamplingFilter.Category sql;
+
+    @BeforeEach
+    void setUp() {
+        sql = new CategorySamplingFilter.Category();
+        sql.setLogger("org.hibernate.SQL");
+        sql.setMaxPerSecond(3);
+        filter = new CategorySamplingFilter();
+        filter.addCategory(sql);
+        loggerContext.getLogger(Logger.ROOT_LOGGER_NAME).setLevel(Level.DEBUG);
+    }
+
+    @Test
+    void shouldDropEventsAboveMaxPerSecond() {
+        //Given
+        Logger logger = loggerContext.getLogger("org.hibernate.SQL");
+
+        //When
+        int kept = 0;
+        for (int i = 0; i < 10; i++) {
+            if (filter.decide(event(logger, Level.DEBUG, "select 1")) == FilterReply.NEUTRAL) {
+                kept++;
+            }
+        }
+
+        //Then
+        assertEquals(3, kept);
+        assertEquals(7, sql.getDropped());
+    }
+
+    @Test
+    void shouldDropEveryEventWithZeroSampleRate() {
+        //Given
+        sql.setSampleRate(0.0);
+        Logger logger = loggerContext.getLogger("org.hibernate.SQL");
+
+        //When
+        FilterReply reply = filter.decide(event(logger, Level.DEBUG, "select 1"));
+
+        //Then
+        assertEquals(FilterReply.DENY, reply);
+        assertEquals(1, sql.getDropped());
+    }
+
+    @Test
+    void shouldAlwaysPassWarningsAndOtherLoggers() {
+        //Given
+        sql.setSampleRate(0.0);
+        Logger sqlLogger = loggerContext.getLogger("org.hibernate.SQL");
+        Logger siblingLogger = loggerContext.getLogger("org.hibernate.SQL_SLOW");
+
+        //When
+        FilterReply warning = filter.decide(event(sqlLogger, Level.WARN, "deadlock"));
+        FilterReply sibling = filter.decide(event(siblingLogger, Level.INFO, "slow query"));
+
+        //Then
+        assertEquals(FilterReply.NEUTRAL, warning);
+        assertEquals(FilterReply.NEUTRAL, sibling);
+        assertEquals(0, sql.getDropped());
+    }
+
+    @Test
+    void shouldLimitEventsLoggedThroughFluentApi() {
+        //Given
+        CategorySamplingFilter.Category auth = new CategorySamplingFilter.Category();
+        auth.setLogger("security.auth");
+        auth.setMaxPerSecond(3);
+        CategorySamplingFilter authFilter = new CategorySamplingFilter();
+        authFilter.addCategory(auth);
+        ListAppender<ILoggingEvent> appender = new ListAppender<>();
+        appender.setContext(loggerContext);
+        appender.addFilter(authFilter);
+        appender.start();
+        Logger logger = loggerContext.getLogger("security.auth");
+        logger.addAppender(appender);
+
+        //When
+        for (int i = 0; i < 10; i++) {
+            logger.atInfo()
+                    .addKeyValue("event", "LOGIN_FAILED")
+                    .log("Security event {}", "LOGIN_FAILED");
+        }
+
+        //Then
+        assertEquals(3, appender.list.size());
+        assertEquals(7, auth.getDropped());
+    }
+
+    private LoggingEvent event(Logger logger, Level level, String message) {
+        return new LoggingEvent(Logger.class.getName(), logger, level, message, null, null);
+    }
+}
@@ -0,0 +1,72 @@
+package pl.sak.security.logging;
+
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import pl.sak.security.SecurityApplication;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(classes = SecurityApplication.class)
+@ActiveProfiles("test")
+class CategorySamplingIT {
+
+    private final MeterRegistry meterRegistry;
+    private CategorySamplingFilter.Category auth;
+    private double sampleRate;
+
+    @Autowired
+    public CategorySamplingIT(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @BeforeEach
+    void setUp() {
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        Appender<ILoggingEvent> async = context.getLogger(Logger.ROOT_LOGGER_NAME).getAppender("ASYNC");
+        auth = async.getCopyOfAttachedFiltersList().stream()
+                .filter(CategorySamplingFilter.class::isInstance)
+                .map(CategorySamplingFilter.class::cast)
+                .flatMap(filter -> filter.getCategories().stream())
+                .filter(category -> category.getLogger().equals("security.auth"))
+                .findFirst()
+                .orElseThrow();
+        sampleRate = auth.getSampleRate();
+    }
+
+    @AfterEach
+    void tearDown() {
+        auth.setSampleRate(sampleRate);
+    }
+
+    @Test
+    void shouldDropSecurityEventsLoggedThroughFluentApi() {
+        //Given
+        auth.setSampleRate(0.0);
+        double droppedBefore = dropped();
+
+        //When
+        Logger logger = LoggerFactory.getLogger("security.auth");
+        for (int i = 0; i < 10; i++) {
+            logger.atInfo()
+                    .addKeyValue("event", "LOGIN_FAILED")
+                    .log("Security event {}", "LOGIN_FAILED");
+        }
+
+        //Then
+        assertEquals(droppedBefore + 10, dropped());
+    }
+
+    private double dropped() {
+        return meterRegistry.get("security.logging.dropped").tag("category", "security.auth").functionCounter().count();
+    }
+}
@@ -0,0 +1,62 @@
+package pl.sak.security.logging;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SlowQueryLoggerTest {
+
+    private static final String SQL = "SELECT id, email, password, user_role, locked_until FROM _user WHERE email = ?";
+
+    private final Logger logger = (Logger) LoggerFactory.getLogger("security.sql.slow");
+    private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+    private final SlowQueryLogger slowQueryLogger = new SlowQueryLogger(200);
+
+    @BeforeEach
+    void setUp() {
+        appender.start();
+        logger.addAppender(appender);
+    }
+
+    @AfterEach
+    void tearDown() {
+        logger.detachAppender(appender);
+    }
+
+    @Test
+    void shouldLogStatementSlowerThanThreshold() {
+        //When
+        slowQueryLogger.afterQuery(execution(250), List.of(new QueryInfo(SQL)));
+
+        //Then
+        assertEquals(1, appender.list.size());
+        assertTrue(appender.list.get(0).getFormattedMessage().contains(SQL));
+    }
+
+    @Test
+    void shouldIgnoreStatementFasterThanThreshold() {
+        //When
+        slowQueryLogger.afterQuery(execution(20), List.of(new QueryInfo(SQL)));
+
+        //Then
+        assertTrue(appender.list.isEmpty());
+    }
+
+    private static ExecutionInfo execution(long elapsedMillis) {
+        ExecutionInfo executionInfo = new ExecutionInfo();
+        executionInfo.setElapsedTime(elapsedMillis);
+        executionInfo.setSuccess(true);
+        return executionInfo;
+    }
+}
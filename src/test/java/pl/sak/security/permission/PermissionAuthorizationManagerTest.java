@@ -0,0 +1,103 @@
+package pl.sak.security.permission;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.util.SimpleMethodInvocation;
+import pl.sak.security.enums.Permission;
+import pl.sak.security.model.UserCredentials;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static pl.sak.security.enums.Permission.USERS_EXPORT;
+import static pl.sak.security.enums.Permission.USERS_LIST;
+import static pl.sak.security.enums.Permission.USERS_LOOKUP;
+import static pl.sak.security.enums.UserRole.ADMIN;
+import static pl.sak.security.enums.UserRole.USER;
+
+class PermissionAuthorizationManagerTest {
+
+    private final PermissionAuthorizationManager manager = new PermissionAuthorizationManager();
+
+    @Test
+    void shouldGrantWhenAllRequiredBitsArePresent() throws Exception {
+        //Given
+        Authentication authentication = tokenFor(ADMIN.getPermissionMask());
+
+        //When
+        boolean granted = check(authentication, "export");
+
+        //Then
+        assertTrue(granted);
+    }
+
+    @Test
+    void shouldDenyWhenAnyRequiredBitIsMissing() throws Exception {
+        //Given
+        Authentication authentication = tokenFor(USERS_LIST.mask());
+
+        //When
+        boolean granted = check(authentication, "export");
+
+        //Then
+        assertFalse(granted);
+    }
+
+    @Test
+    void shouldUseClassLevelAnnotationWhenMethodIsNotAnnotated() throws Exception {
+        //Given
+        Authentication authentication = tokenFor(USER.getPermissionMask());
+
+        //When
+        boolean granted = check(authentication, "lookup");
+
+        //Then
+        assertTrue(granted);
+    }
+
+    @Test
+    void shouldFoldPermissionAuthoritiesOfOtherAuthentications() throws Exception {
+        //Given
+        UserCredentials user = new UserCredentials(2L, "user@example.com", "hash", USER, null);
+        Authentication authentication = UsernamePasswordAuthenticationToken.authenticated(user, null, user.getAuthorities());
+
+        //When
+        boolean export = check(authentication, "export");
+        boolean lookup = check(authentication, "lookup");
+
+        //Then
+        assertFalse(export);
+        assertTrue(lookup);
+    }
+
+    @Test
+    void shouldRoundTripMaskThroughEnumSet() {
+        //When
+        long mask = Permission.toMask(Permission.fromMask(ADMIN.getPermissionMask()));
+
+        //Then
+        assertEquals(ADMIN.getPermissionMask(), mask);
+        assertEquals(ADMIN.getPermissions(), Permission.fromMask(mask));
+    }
+
+    private boolean check(Authentication authentication, String method) throws Exception {
+        SimpleMethodInvocation invocation = new SimpleMethodInvocation(new Secured(), Secured.class.getMethod(method));
+        return manager.check(() -> authentication, invocation).isGranted();
+    }
+
+    private static Authentication tokenFor(long mask) {
+        return new PermissionAuthenticationToken(new UserCredentials(1L, "admin@example.com", "hash", ADMIN, null), mask);
+    }
+
+    @RequiresPermission(USERS_LOOKUP)
+    static class Secured {
+
+        @RequiresPermission({USERS_LIST, USERS_EXPORT})
+        public void export() {
+        }
+
+        public void lookup() {
+        }
+    }
+}
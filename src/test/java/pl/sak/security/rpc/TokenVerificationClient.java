@@ -0,0 +1,100 @@
+package pl.sak.security.rpc;
+
+import pl.sak.security.enums.TokenStatus;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Blocking client for {@link TokenVerificationProtocol}. Requests may be written back to back before their
+ * responses are read, which is how callers multiplex one connection.
+ */
+public class TokenVerificationClient implements AutoCloseable {
+
+    private final Socket socket;
+    private final DataOutputStream out;
+    private final DataInputStream in;
+
+    public TokenVerificationClient(String host, int port) throws IOException {
+        this.socket = new Socket(host, port);
+        this.socket.setTcpNoDelay(true);
+        this.out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+        this.in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+    }
+
+    public Response verify(int requestId, String token) throws IOException {
+        send(requestId, TokenVerificationProtocol.VERIFY, List.of(token));
+        flush();
+        return read();
+    }
+
+    public Response verifyAll(int requestId, List<String> tokens) throws IOException {
+        send(requestId, TokenVerificationProtocol.BATCH_VERIFY, tokens);
+        flush();
+        return read();
+    }
+
+    public void send(int requestId, byte opcode, List<String> tokens) throws IOException {
+        List<byte[]> encoded = new ArrayList<>(tokens.size());
+        int length = TokenVerificationProtocol.HEADER_LENGTH;
+        for (String token : tokens) {
+            byte[] bytes = token.getBytes(StandardCharsets.US_ASCII);
+            encoded.add(bytes);
+            length += 2 + bytes.length;
+        }
+        out.writeInt(length);
+        out.writeInt(requestId);
+        out.writeByte(opcode);
+        out.writeShort(tokens.size());
+        for (byte[] bytes : encoded) {
+            out.writeShort(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    public Response read() throws IOException {
+        in.readInt();
+        int requestId = in.readInt();
+        byte opcode = in.readByte();
+        int count = in.readUnsignedShort();
+        List<Result> results = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            TokenStatus status = TokenStatus.values()[in.readUnsignedByte()];
+            long permissions = in.readLong();
+            long expiresAt = in.readLong();
+            byte[] email = new byte[in.readUnsignedShort()];
+            in.readFully(email);
+            results.add(new Result(status, new String(email, StandardCharsets.UTF_8), permissions, expiresAt));
+        }
+        return new Response(requestId, opcode, results);
+    }
+
+    /**
+     * Returns {@code true} once the server has closed the connection.
+     */
+    public boolean isClosedByServer() throws IOException {
+        return in.read() < 0;
+    }
+
+    @Override
+    public void close() throws IOException {
+        socket.close();
+    }
+
+    public record Response(int requestId, byte opcode, List<Result> results) {
+    }
+
+    public record Result(TokenStatus status, String email, long permissions, long expiresAt) {
+    }
+}
@@ -0,0 +1,152 @@
+package pl.sak.security.rpc;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import liquibase.exception.LiquibaseException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import pl.sak.security.DatabaseCleaner;
+import pl.sak.security.SecurityApplication;
+import pl.sak.security.cache.UserCache;
+import pl.sak.security.enums.TokenStatus;
+import pl.sak.security.enums.UserRole;
+import pl.sak.security.model.request.AuthenticationRequest;
+import pl.sak.security.model.response.AuthenticationResponse;
+import pl.sak.security.rpc.TokenVerificationClient.Response;
+import pl.sak.security.rpc.TokenVerificationClient.Result;
+
+import java.io.DataOutputStream;
+import java.net.Socket;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(classes = SecurityApplication.class)
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class TokenVerificationServerIT {
+
+    private final MockMvc postman;
+    private final ObjectMapper objectMapper;
+    private final DatabaseCleaner databaseCleaner;
+    private final UserCache userCache;
+    private final TokenVerificationServer server;
+
+    @Autowired
+    public TokenVerificationServerIT(MockMvc postman, ObjectMapper objectMapper, DatabaseCleaner databaseCleaner,
+                                     UserCache userCache, TokenVerificationServer server) {
+        this.postman = postman;
+        this.objectMapper = objectMapper;
+        this.databaseCleaner = databaseCleaner;
+        this.userCache = userCache;
+        this.server = server;
+    }
+
+    @AfterEach
+    void tearDown() throws LiquibaseException {
+        databaseCleaner.cleanUp();
+        userCache.evictAll();
+    }
+
+    @Test
+    void shouldVerifyIssuedToken() throws Exception {
+        //Given
+        String token = authenticate();
+
+        try (TokenVerificationClient client = new TokenVerificationClient("localhost", server.getPort())) {
+            //When
+            Response response = client.verify(7, token);
+
+            //Then
+            assertEquals(7, response.requestId());
+            assertEquals(TokenVerificationProtocol.VERIFY, response.opcode());
+            Result result = response.results().get(0);
+            assertEquals(TokenStatus.VALID, result.status());
+            assertEquals("b.bartek@example.com", result.email());
+            assertEquals(UserRole.ADMIN.getPermissionMask(), result.permissions());
+            assertTrue(result.expiresAt() > System.currentTimeMillis());
+        }
+    }
+
+    @Test
+    void shouldVerifyBatchInRequestOrder() throws Exception {
+        //Given
+        String token = authenticate();
+
+        try (TokenVerificationClient client = new TokenVerificationClient("localhost", server.getPort())) {
+            //When
+            Response response = client.verifyAll(1, List.of("not-a-token", token, token + "x"));
+
+            //Then
+            assertEquals(List.of(TokenStatus.INVALID, TokenStatus.VALID, TokenStatus.INVALID),
+                    response.results().stream().map(Result::status).toList());
+            assertEquals("", response.results().get(0).email());
+        }
+    }
+
+    @Test
+    void shouldAnswerPipelinedRequestsOnOneConnection() throws Exception {
+        //Given
+        String token = authenticate();
+        int requests = 200;
+
+        try (TokenVerificationClient client = new TokenVerificationClient("localhost", server.getPort())) {
+            //When
+            for (int i = 0; i < requests; i++) {
+                client.send(i, TokenVerificationProtocol.VERIFY, List.of(i % 2 == 0 ? token : "garbage"));
+            }
+            client.flush();
+
+            //Then
+            for (int i = 0; i < requests; i++) {
+                Response response = client.read();
+                assertEquals(i, response.requestId());
+                assertEquals(i % 2 == 0 ? TokenStatus.VALID : TokenStatus.INVALID, response.results().get(0).status());
+            }
+        }
+    }
+
+    @Test
+    void shouldCloseConnectionOnMalformedFrame() throws Exception {
+        //Given
+        try (Socket socket = new Socket("localhost", server.getPort());
+             TokenVerificationClient client = new TokenVerificationClient("localhost", server.getPort())) {
+            DataOutputStream out = new DataOutputStream(socket.getOutputStream());
+
+            //When
+            client.send(1, TokenVerificationProtocol.VERIFY, List.of("a", "b"));
+            client.flush();
+            out.writeInt(-1);
+            out.flush();
+
+            //Then
+            assertTrue(client.isClosedByServer());
+            assertTrue(socket.getInputStream().read() < 0);
+        }
+    }
+
+    private String authenticate() throws Exception {
+        AuthenticationRequest request = AuthenticationRequest.builder()
+                .email("b.bartek@example.com")
+                .password("admin")
+                .build();
+
+        MvcResult authenticate = postman.perform(post("/auths/authenticate")
+                        .content(objectMapper.writeValueAsString(request))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        return objectMapper.readValue(authenticate.getResponse().getContentAsString(), AuthenticationResponse.class)
+                .getToken();
+    }
+}
@@ -0,0 +1,95 @@
+package pl.sak.security.rpc;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import pl.sak.security.enums.TokenStatus;
+import pl.sak.security.model.TokenVerification;
+import pl.sak.security.service.TokenVerificationService;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.Socket;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TokenVerificationServerLimitsTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private TokenVerificationServer server;
+
+    @BeforeEach
+    void setUp() {
+        TokenVerificationService tokenVerificationService = mock(TokenVerificationService.class);
+        when(tokenVerificationService.verifyAll(anyList())).thenReturn(List.of(TokenVerification.INVALID));
+        server = new TokenVerificationServer(tokenVerificationService, meterRegistry, "127.0.0.1", 0, 1, 1,
+                Duration.ofMillis(200));
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop();
+    }
+
+    @Test
+    void shouldCloseConnectionsAboveLimit() throws Exception {
+        //Given
+        try (TokenVerificationClient client = new TokenVerificationClient("localhost", server.getPort())) {
+            assertEquals(TokenStatus.INVALID, client.verify(1, "token").results().get(0).status());
+
+            //When
+            try (Socket rejected = socket()) {
+
+                //Then
+                assertTrue(rejected.getInputStream().read() < 0);
+                assertEquals(1, meterRegistry.get("security.rpc.closed").tag("reason", "max_connections")
+                        .counter().count());
+            }
+        }
+    }
+
+    @Test
+    void shouldCloseIdleConnection() throws Exception {
+        //Given
+        try (Socket socket = socket()) {
+
+            //When
+            int read = socket.getInputStream().read();
+
+            //Then
+            assertTrue(read < 0);
+            assertEquals(1, meterRegistry.get("security.rpc.closed").tag("reason", "idle").counter().count());
+        }
+    }
+
+    @Test
+    void shouldRejectVerifyFrameLongerThanSingleTokenLimit() throws Exception {
+        //Given
+        try (Socket socket = socket()) {
+            DataOutputStream out = new DataOutputStream(socket.getOutputStream());
+
+            //When
+            out.writeInt(TokenVerificationProtocol.MAX_VERIFY_LENGTH + 1);
+            out.writeInt(1);
+            out.writeByte(TokenVerificationProtocol.VERIFY);
+            out.flush();
+
+            //Then
+            assertTrue(socket.getInputStream().read() < 0);
+        }
+    }
+
+    private Socket socket() throws IOException {
+        Socket socket = new Socket("localhost", server.getPort());
+        socket.setSoTimeout(5000);
+        return socket;
+    }
+}
@@ -0,0 +1,197 @@
+package pl.sak.security.session;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import pl.sak.security.enums.UserRole;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class MappedSessionStoreTest {
+
+    private static final long NOW = 1_000_000L;
+
+    @TempDir
+    private Path directory;
+
+    private MappedSessionStore store;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        store = new MappedSessionStore(directory.resolve("sessions.dat"), 16);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        store.close();
+    }
+
+    @Test
+    void shouldStoreAndResolveSession() {
+        //Given
+        Session session = new Session(7L, "k.kasia@example.com", UserRole.USER, NOW + 60_000);
+
+        //When
+        store.put(1L, 2L, session);
+
+        //Then
+        assertEquals(session, store.get(1L, 2L, NOW));
+        assertNull(store.get(1L, 3L, NOW));
+        assertEquals(1, store.size());
+    }
+
+    @Test
+    void shouldNotResolveExpiredSession() {
+        //Given
+        store.put(1L, 2L, new Session(7L, "k.kasia@example.com", UserRole.USER, NOW));
+
+        //When
+        Session session = store.get(1L, 2L, NOW + 1);
+
+        //Then
+        assertNull(session);
+    }
+
+    @Test
+    void shouldKeepCollidingSessionsReachableAfterRemove() {
+        //Given
+        for (long keyHi = 1; keyHi <= 4; keyHi++) {
+            store.put(keyHi, 42L, new Session(keyHi, "user" + keyHi + "@example.com", UserRole.USER, NOW + 60_000));
+        }
+
+        //When
+        boolean removed = store.remove(2L, 42L);
+
+        //Then
+        assertTrue(removed);
+        assertNull(store.get(2L, 42L, NOW));
+        assertEquals("user1@example.com", store.get(1L, 42L, NOW).email());
+        assertEquals("user3@example.com", store.get(3L, 42L, NOW).email());
+        assertEquals("user4@example.com", store.get(4L, 42L, NOW).email());
+        assertEquals(3, store.size());
+    }
+
+    @Test
+    void shouldSweepExpiredAndRevokedSessions() {
+        //Given
+        store.put(1L, 1L, new Session(1L, "expired@example.com", UserRole.USER, NOW - 1));
+        store.put(2L, 2L, new Session(2L, "revoked@example.com", UserRole.USER, NOW + 60_000));
+        store.put(3L, 3L, new Session(3L, "active@example.com", UserRole.ADMIN, NOW + 60_000));
+
+        //When
+        store.revokeUser(2L, NOW + 60_000, NOW);
+        int cursor = 0;
+        do {
+            cursor = store.sweep(cursor, 4, NOW);
+        } while (cursor != 0);
+
+        //Then
+        assertEquals(1, store.size());
+        assertNull(store.get(2L, 2L, NOW));
+        assertEquals(UserRole.ADMIN, store.get(3L, 3L, NOW).userRole());
+    }
+
+    @Test
+    void shouldRejectSessionsAboveLoadLimit() {
+        //Given
+        int limit = store.capacity() * 3 / 4;
+        for (int i = 0; i < limit; i++) {
+            assertTrue(store.put(i, i, new Session(i, "user@example.com", UserRole.USER, NOW + 60_000)));
+        }
+
+        //When
+        boolean stored = store.put(-1L, -1L, new Session(0L, "user@example.com", UserRole.USER, NOW + 60_000));
+
+        //Then
+        assertFalse(stored);
+        assertEquals(limit, store.size());
+    }
+
+    @Test
+    void shouldReopenExistingSessions() throws IOException {
+        //Given
+        Session session = new Session(7L, "k.kasia@example.com", UserRole.USER, NOW + 60_000);
+        store.put(1L, 2L, session);
+        store.close();
+
+        //When
+        store = new MappedSessionStore(directory.resolve("sessions.dat"), 16);
+
+        //Then
+        assertEquals(1, store.size());
+        assertEquals(session, store.get(1L, 2L, NOW));
+    }
+
+    @Test
+    void shouldRejectSessionsExpiringAtOrBeforeHorizon() {
+        //Given
+        Session revoked = new Session(7L, "k.kasia@example.com", UserRole.USER, NOW + 60_000);
+        Session issuedLater = new Session(7L, "k.kasia@example.com", UserRole.USER, NOW + 60_001);
+        store.put(1L, 1L, revoked);
+        store.put(2L, 2L, issuedLater);
+
+        //When
+        store.revokeUser(7L, NOW + 60_000, NOW);
+
+        //Then
+        assertNull(store.get(1L, 1L, NOW));
+        assertEquals(issuedLater, store.get(2L, 2L, NOW));
+    }
+
+    @Test
+    void shouldKeepRevocationsAfterReopen() throws IOException {
+        //Given
+        store.put(1L, 2L, new Session(7L, "k.kasia@example.com", UserRole.USER, NOW + 60_000));
+        store.revokeUser(7L, NOW + 60_000, NOW);
+        store.close();
+
+        //When
+        store = new MappedSessionStore(directory.resolve("sessions.dat"), 16);
+
+        //Then
+        assertNull(store.get(1L, 2L, NOW));
+    }
+
+    @Test
+    void shouldDeleteSessionsWhenRevocationAreaIsFull() throws IOException {
+        //Given
+        store.close();
+        store = new MappedSessionStore(directory.resolve("small.dat"), 16, 1);
+        store.put(1L, 1L, new Session(7L, "k.kasia@example.com", UserRole.USER, NOW + 60_000));
+        store.put(2L, 2L, new Session(8L, "b.bartek@example.com", UserRole.USER, NOW + 60_000));
+        store.revokeUser(7L, NOW + 60_000, NOW);
+
+        //When
+        store.revokeUser(8L, NOW + 60_000, NOW);
+        store.close();
+        store = new MappedSessionStore(directory.resolve("small.dat"), 16, 1);
+
+        //Then
+        assertEquals(1, store.size());
+        assertNull(store.get(1L, 1L, NOW));
+        assertNull(store.get(2L, 2L, NOW));
+    }
+
+    @Test
+    void shouldCreateFileReadableByOwnerOnly() throws IOException {
+        //Given
+        Path file = directory.resolve("sessions.dat");
+        assumeTrue(file.getFileSystem().supportedFileAttributeViews().contains("posix"));
+
+        //When
+        String permissions = PosixFilePermissions.toString(Files.getPosixFilePermissions(file));
+
+        //Then
+        assertEquals("rw-------", permissions);
+    }
+}
@@ -0,0 +1,127 @@
+package pl.sak.security.statistics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.invocation.InvocationOnMock;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class LoginStatisticsAggregatorTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private TaskScheduler taskScheduler;
+
+    private final List<List<Object[]>> batches = new ArrayList<>();
+    private LoginStatisticsAggregator loginStatisticsAggregator;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenAnswer(this::recordBatch);
+        loginStatisticsAggregator = new LoginStatisticsAggregator(jdbcTemplate, taskScheduler,
+                new SimpleMeterRegistry(), 3, 500);
+    }
+
+    @Test
+    void shouldCoalesceRepeatedLoginsIntoOneUpdate() {
+        //Given
+        loginStatisticsAggregator.recordLogin("test@example.com");
+        loginStatisticsAggregator.recordLogin("test@example.com");
+        loginStatisticsAggregator.recordLogin("test@example.com");
+
+        //When
+        loginStatisticsAggregator.flush();
+
+        //Then
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), anyList());
+        assertEquals(1, batches.get(0).size());
+        Object[] row = batches.get(0).get(0);
+        assertEquals(3L, row[0]);
+        assertEquals("test@example.com", row[2]);
+    }
+
+    @Test
+    void shouldScheduleFlushWhenThresholdIsReached() {
+        //Given
+        loginStatisticsAggregator.recordLogin("first@example.com");
+        loginStatisticsAggregator.recordLogin("second@example.com");
+        verify(taskScheduler, never()).schedule(any(Runnable.class), any(Instant.class));
+
+        //When
+        loginStatisticsAggregator.recordLogin("third@example.com");
+        loginStatisticsAggregator.recordLogin("fourth@example.com");
+
+        //Then
+        ArgumentCaptor<Runnable> flush = ArgumentCaptor.forClass(Runnable.class);
+        verify(taskScheduler, times(1)).schedule(flush.capture(), any(Instant.class));
+        flush.getValue().run();
+        assertEquals(1, batches.size());
+        assertEquals(4, batches.get(0).size());
+    }
+
+    @Test
+    void shouldKeepFailedBatchForNextFlush() {
+        //Given
+        doThrow(new DataAccessResourceFailureException("database unavailable"))
+                .doAnswer(this::recordBatch)
+                .when(jdbcTemplate).batchUpdate(anyString(), anyList());
+        loginStatisticsAggregator.recordLogin("test@example.com");
+        loginStatisticsAggregator.flush();
+
+        //When
+        loginStatisticsAggregator.recordLogin("test@example.com");
+        loginStatisticsAggregator.flush();
+
+        //Then
+        verify(jdbcTemplate, times(2)).batchUpdate(anyString(), anyList());
+        assertEquals(1, batches.size());
+        Object[] row = batches.get(0).get(0);
+        assertEquals(2L, row[0]);
+        assertEquals("test@example.com", row[2]);
+    }
+
+    @Test
+    void shouldDrainPendingLoginsOnShutdown() {
+        //Given
+        loginStatisticsAggregator.recordLogin("first@example.com");
+        loginStatisticsAggregator.recordLogin("second@example.com");
+
+        //When
+        loginStatisticsAggregator.drain();
+
+        //Then
+        assertEquals(1, batches.size());
+        List<Object> emails = batches.get(0).stream().map(row -> row[2]).toList();
+        assertTrue(emails.containsAll(List.of("first@example.com", "second@example.com")));
+        loginStatisticsAggregator.flush();
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), anyList());
+    }
+
+    private int[] recordBatch(InvocationOnMock invocation) {
+        List<Object[]> batch = invocation.getArgument(1);
+        batches.add(new ArrayList<>(batch));
+        return new int[batch.size()];
+    }
+}